@@ -0,0 +1,141 @@
+package com.petsocity.petsocity.benchmark;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.petsocity.petsocity.PetsocityApplication;
+import com.petsocity.petsocity.model.FiltroUsuarios;
+import com.petsocity.petsocity.model.Usuario;
+import com.petsocity.petsocity.repository.UsuarioRepository;
+
+/**
+ * Búsqueda de usuarios (UsuarioRepositoryCustom.buscar) sobre una tabla de 1M filas en H2
+ * en memoria, con y sin los índices de {@link Usuario}. Levanta el contexto de Spring sin
+ * servidor web para medir la consulta real de Hibernate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class BusquedaUsuariosBenchmark {
+
+    private static final int REGIONES = 16;
+    private static final int COMUNAS_POR_REGION = 20;
+    private static final int LIMITE = 21;
+    private static final String[] NOMBRES = {
+        "Ana", "Andrea", "Benjamin", "Camila", "Carla", "Catalina", "Diego", "Fernanda", "Francisca", "Gabriel",
+        "Ignacio", "Isidora", "Javiera", "Joaquin", "Jose", "Josefa", "Lucas", "Martina", "Matias", "Maximiliano",
+        "Nicolas", "Sofia", "Tomas", "Valentina", "Vicente"
+    };
+
+    @Param({"1000000"})
+    private int filas;
+
+    @Param({"true", "false"})
+    private boolean indices;
+
+    private ConfigurableApplicationContext contexto;
+    private UsuarioRepository repository;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contexto = new SpringApplicationBuilder(PetsocityApplication.class)
+            .web(WebApplicationType.NONE)
+            .run("--spring.profiles.active=benchmark",
+                "--spring.datasource.url=jdbc:h2:mem:busqueda;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--ubicaciones.snapshot.directorio=",
+                "--logging.level.root=WARN");
+        repository = contexto.getBean(UsuarioRepository.class);
+        JdbcTemplate jdbc = contexto.getBean(JdbcTemplate.class);
+
+        cargar(jdbc);
+        if (!indices) {
+            jdbc.execute("drop index idx_usuario_region_comuna_id");
+            jdbc.execute("drop index idx_usuario_comuna_id");
+            jdbc.execute("drop index idx_usuario_nombre_id");
+        }
+        jdbc.execute("analyze");
+    }
+
+    private void cargar(JdbcTemplate jdbc) {
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        int bloque = 10_000;
+        for (int inicio = 0; inicio < filas; inicio += bloque) {
+            List<Object[]> valores = new ArrayList<>(bloque);
+            for (int i = inicio; i < Math.min(filas, inicio + bloque); i++) {
+                int region = i % REGIONES;
+                int comuna = (i / REGIONES) % COMUNAS_POR_REGION;
+                valores.add(new Object[] {
+                    NOMBRES[(i / 7) % NOMBRES.length], "Apellido", "usuario" + i + "@petsocity.cl", "x",
+                    "912345678", "Calle " + i, region(region), comuna(region, comuna), ahora
+                });
+            }
+            jdbc.batchUpdate("insert into usuario (nombre, apellido, email, contrasenia, telefono, direccion, region, comuna,"
+                + " fecha_creacion, version) values (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)", valores);
+        }
+    }
+
+    private static String region(int region) {
+        return "Region " + region;
+    }
+
+    private static String comuna(int region, int comuna) {
+        return "Comuna " + region + "-" + comuna;
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<Usuario> regionYComuna() {
+        ThreadLocalRandom azar = ThreadLocalRandom.current();
+        int region = azar.nextInt(REGIONES);
+        FiltroUsuarios filtro = new FiltroUsuarios(region(region), comuna(region, azar.nextInt(COMUNAS_POR_REGION)), null);
+        return repository.buscar(filtro, 0L, LIMITE);
+    }
+
+    @Benchmark
+    public List<Usuario> comunaPaginaProfunda() {
+        ThreadLocalRandom azar = ThreadLocalRandom.current();
+        int region = azar.nextInt(REGIONES);
+        FiltroUsuarios filtro = new FiltroUsuarios(null, comuna(region, azar.nextInt(COMUNAS_POR_REGION)), null);
+        // Cursor a mitad de la tabla: con el índice (comuna, id) no se leen las filas anteriores
+        return repository.buscar(filtro, filas / 2L, LIMITE);
+    }
+
+    @Benchmark
+    public List<Usuario> prefijoNombre() {
+        String nombre = NOMBRES[ThreadLocalRandom.current().nextInt(NOMBRES.length)];
+        return repository.buscar(new FiltroUsuarios(null, null, nombre.substring(0, 3)), 0L, LIMITE);
+    }
+}
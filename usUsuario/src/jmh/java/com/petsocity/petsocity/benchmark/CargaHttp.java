@@ -0,0 +1,141 @@
+package com.petsocity.petsocity.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generador de carga HTTP simple para comparar el modo de hilos de plataforma con el perfil
+ * {@code virtual}. Mantiene {@code concurrencia} clientes pidiendo la misma URL en bucle
+ * cerrado y reporta throughput y percentiles de latencia (p50, p99, máximo).
+ * <p>
+ * Se ejecuta con {@code ./gradlew cargaHttp -Purl=... -Pconcurrencia=... -Psegundos=... -Petiqueta=...}
+ * contra la aplicación levantada aparte; ver README.
+ */
+public final class CargaHttp {
+
+    private CargaHttp() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        URI url = URI.create(args.length > 0 ? args[0] : "http://localhost:8088/api/v1/usuarios?limit=20");
+        int concurrencia = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+        int segundos = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        String etiqueta = args.length > 3 ? args[3] : "carga";
+        int calentamiento = Math.max(1, segundos / 6);
+
+        // Los clientes son hilos virtuales para que el generador no sea el cuello de botella
+        try (HttpClient cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build()) {
+            HttpRequest solicitud = HttpRequest.newBuilder(url).timeout(Duration.ofSeconds(30)).GET().build();
+
+            System.out.printf("Calentamiento %ds con %d clientes contra %s%n", calentamiento, concurrencia, url);
+            medir(cliente, solicitud, concurrencia, calentamiento);
+
+            Resultado resultado = medir(cliente, solicitud, concurrencia, segundos);
+            String resumen = resultado.resumen(etiqueta, concurrencia, segundos);
+            System.out.println(resumen);
+
+            Path salida = Path.of("build", "results", "carga", etiqueta + ".json");
+            Files.createDirectories(salida.getParent());
+            Files.writeString(salida, resultado.json(etiqueta, url, concurrencia, segundos));
+            System.out.println("Resultado guardado en " + salida.toAbsolutePath());
+        }
+    }
+
+    private static Resultado medir(HttpClient cliente, HttpRequest solicitud, int concurrencia, int segundos)
+            throws Exception {
+        long fin = System.nanoTime() + Duration.ofSeconds(segundos).toNanos();
+        LongAdder errores = new LongAdder();
+        List<Future<long[]>> clientes = new ArrayList<>(concurrencia);
+
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrencia; i++) {
+                clientes.add(hilos.submit(() -> {
+                    long[] latencias = new long[1024];
+                    int cantidad = 0;
+                    while (System.nanoTime() < fin) {
+                        long inicio = System.nanoTime();
+                        try {
+                            HttpResponse<Void> respuesta = cliente.send(solicitud, HttpResponse.BodyHandlers.discarding());
+                            if (respuesta.statusCode() >= 400) {
+                                errores.increment();
+                                continue;
+                            }
+                        } catch (IOException e) {
+                            errores.increment();
+                            continue;
+                        }
+                        if (cantidad == latencias.length) {
+                            latencias = Arrays.copyOf(latencias, cantidad * 2);
+                        }
+                        latencias[cantidad++] = System.nanoTime() - inicio;
+                    }
+                    return Arrays.copyOf(latencias, cantidad);
+                }));
+            }
+
+            int total = 0;
+            List<long[]> porCliente = new ArrayList<>(concurrencia);
+            for (Future<long[]> futuro : clientes) {
+                long[] latencias = futuro.get();
+                porCliente.add(latencias);
+                total += latencias.length;
+            }
+            long[] todas = new long[total];
+            int posicion = 0;
+            for (long[] latencias : porCliente) {
+                System.arraycopy(latencias, 0, todas, posicion, latencias.length);
+                posicion += latencias.length;
+            }
+            Arrays.sort(todas);
+            return new Resultado(todas, errores.sum());
+        }
+    }
+
+    private record Resultado(long[] latencias, long errores) {
+
+        double percentilMs(double percentil) {
+            if (latencias.length == 0) {
+                return 0;
+            }
+            int indice = (int) Math.ceil(percentil * latencias.length) - 1;
+            return latencias[Math.max(0, indice)] / 1_000_000.0;
+        }
+
+        double throughput(int segundos) {
+            return latencias.length / (double) segundos;
+        }
+
+        String resumen(String etiqueta, int concurrencia, int segundos) {
+            return String.format(Locale.ROOT,
+                "%s: %d clientes, %.1f req/s, p50 %.1f ms, p99 %.1f ms, max %.1f ms, %d errores",
+                etiqueta, concurrencia, throughput(segundos), percentilMs(0.50), percentilMs(0.99),
+                percentilMs(1.0), errores);
+        }
+
+        String json(String etiqueta, URI url, int concurrencia, int segundos) {
+            return String.format(Locale.ROOT,
+                "{\"etiqueta\":\"%s\",\"url\":\"%s\",\"concurrencia\":%d,\"segundos\":%d,\"solicitudes\":%d,"
+                    + "\"errores\":%d,\"throughput\":%.1f,\"p50Ms\":%.2f,\"p99Ms\":%.2f,\"maxMs\":%.2f}%n",
+                etiqueta, url, concurrencia, segundos, latencias.length, errores, throughput(segundos),
+                percentilMs(0.50), percentilMs(0.99), percentilMs(1.0));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.petsocity.petsocity.benchmark;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.petsocity.petsocity.PetsocityApplication;
+import com.petsocity.petsocity.model.CredencialesUsuario;
+import com.petsocity.petsocity.model.Usuario;
+import com.petsocity.petsocity.repository.UsuarioRepository;
+
+/**
+ * Consulta del login sobre H2 en memoria: la entidad completa (findByEmail, como antes)
+ * contra la proyección de columnas (findCredencialesByEmail). Cada consulta corre en su
+ * propia transacción, como en la aplicación, para incluir el costo del contexto de
+ * persistencia; la dirección se rellena para que las filas tengan un tamaño realista.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ConsultaLoginBenchmark {
+
+    @Param({"100000"})
+    private int filas;
+
+    private ConfigurableApplicationContext contexto;
+    private UsuarioRepository repository;
+    private TransactionTemplate transaccion;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contexto = new SpringApplicationBuilder(PetsocityApplication.class)
+            .web(WebApplicationType.NONE)
+            .run("--spring.profiles.active=benchmark",
+                "--spring.datasource.url=jdbc:h2:mem:login;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                "--ubicaciones.snapshot.directorio=",
+                "--logging.level.root=WARN");
+        repository = contexto.getBean(UsuarioRepository.class);
+        transaccion = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+        transaccion.setReadOnly(true);
+        cargar(contexto.getBean(JdbcTemplate.class));
+    }
+
+    private void cargar(JdbcTemplate jdbc) {
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        String direccion = "Avenida Libertador Bernardo O'Higgins ".repeat(6).trim();
+        int bloque = 10_000;
+        for (int inicio = 0; inicio < filas; inicio += bloque) {
+            List<Object[]> valores = new ArrayList<>(bloque);
+            for (int i = inicio; i < Math.min(filas, inicio + bloque); i++) {
+                valores.add(new Object[] {
+                    "Nombre" + i, "Apellido" + i, "usuario" + i + "@petsocity.cl",
+                    "$2a$10$abcdefghijklmnopqrstuuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ01",
+                    "912345678", direccion, "Region Metropolitana de Santiago", "Santiago", ahora
+                });
+            }
+            jdbc.batchUpdate("insert into usuario (nombre, apellido, email, contrasenia, telefono, direccion, region, comuna,"
+                + " fecha_creacion, version) values (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)", valores);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void cerrar() {
+        contexto.close();
+    }
+
+    private String emailAlAzar() {
+        return "usuario" + ThreadLocalRandom.current().nextInt(filas) + "@petsocity.cl";
+    }
+
+    @Benchmark
+    public Optional<Usuario> entidadCompleta() {
+        String email = emailAlAzar();
+        return transaccion.execute(estado -> repository.findByEmail(email));
+    }
+
+    @Benchmark
+    public Optional<CredencialesUsuario> proyeccionCredenciales() {
+        String email = emailAlAzar();
+        return transaccion.execute(estado -> repository.findCredencialesByEmail(email));
+    }
+}
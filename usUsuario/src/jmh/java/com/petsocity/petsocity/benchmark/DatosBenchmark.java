@@ -0,0 +1,88 @@
+package com.petsocity.petsocity.benchmark;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.petsocity.petsocity.model.Usuario;
+import com.petsocity.petsocity.security.ContraseniaService;
+
+/**
+ * Datos de prueba deterministas para los benchmarks (sin Faker, para que cada
+ * corrida mida exactamente lo mismo).
+ */
+final class DatosBenchmark {
+
+    private DatosBenchmark() {
+    }
+
+    /**
+     * ContraseniaService con los valores por defecto de application.properties,
+     * salvo el costo de bcrypt.
+     */
+    static ContraseniaService contraseniaService(int costo) {
+        return new ContraseniaService(costo, 0, 64, Duration.ofSeconds(30), Duration.ofSeconds(60), 10_000);
+    }
+
+    /**
+     * Transacciones sin efecto, para usar UsuarioService con el repositorio en memoria.
+     */
+    static PlatformTransactionManager sinTransacciones() {
+        return new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definicion) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus estado) {
+            }
+
+            @Override
+            public void rollback(TransactionStatus estado) {
+            }
+        };
+    }
+
+    /**
+     * Usuarios con la contraseña ya guardada como hash, igual que en la BD.
+     */
+    static List<Usuario> usuariosConHash(int cantidad, ContraseniaService contraseniaService) {
+        List<Usuario> usuarios = usuarios(cantidad);
+        usuarios.parallelStream().forEach(usuario -> usuario.setContrasenia(contraseniaService.hashear(usuario.getContrasenia())));
+        return usuarios;
+    }
+
+    static Usuario usuario(long id) {
+        Usuario usuario = new Usuario();
+        usuario.setId(id);
+        usuario.setNombre("Valentina");
+        usuario.setApellido("Muñoz");
+        usuario.setEmail("usuario" + id + "@petsocity.cl");
+        usuario.setContrasenia(contrasenia(id));
+        usuario.setTelefono("+56912345678");
+        usuario.setDireccion("Av. Providencia " + id);
+        usuario.setRegion("Region Metropolitana de Santiago");
+        usuario.setComuna("Providencia");
+        usuario.setFechaCreacion(LocalDateTime.of(2025, 1, 1, 12, 0));
+        return usuario;
+    }
+
+    static String contrasenia(long id) {
+        return "clave" + id + "segura";
+    }
+
+    static List<Usuario> usuarios(int cantidad) {
+        List<Usuario> usuarios = new ArrayList<>(cantidad);
+        for (long id = 1; id <= cantidad; id++) {
+            usuarios.add(usuario(id));
+        }
+        return usuarios;
+    }
+}
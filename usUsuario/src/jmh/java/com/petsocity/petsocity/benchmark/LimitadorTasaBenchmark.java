@@ -0,0 +1,59 @@
+package com.petsocity.petsocity.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.petsocity.petsocity.security.LimitadorTasa;
+
+/**
+ * Costo del limitador por solicitud con varios hilos: "muchasClaves" reparte las
+ * solicitudes entre muchas IPs (las franjas casi no compiten) y "unaClave" las concentra en
+ * una sola (todas las solicitudes toman el mismo candado, como en un ataque desde una IP).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class LimitadorTasaBenchmark {
+
+    private static final int CLAVES = 50_000;
+
+    @Param({"muchasClaves", "unaClave"})
+    private String escenario;
+
+    private LimitadorTasa limitador;
+    private String[] claves;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        limitador = new LimitadorTasa(20, Duration.ofSeconds(3), 100_000);
+        int cantidad = "unaClave".equals(escenario) ? 1 : CLAVES;
+        claves = new String[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            claves[i] = "10." + (i >> 16) + "." + ((i >> 8) & 0xff) + "." + (i & 0xff);
+        }
+    }
+
+    @Benchmark
+    public Duration intentar() {
+        return limitador.intentar(claves[ThreadLocalRandom.current().nextInt(claves.length)]);
+    }
+}
@@ -0,0 +1,82 @@
+package com.petsocity.petsocity.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.petsocity.petsocity.model.Usuario;
+import com.petsocity.petsocity.security.ContraseniaService;
+
+/**
+ * Throughput de verificación de contraseñas con el costo de bcrypt de producción.
+ * "bcrypt" verifica siempre con el hash completo (por ejemplo, el primer login de cada
+ * usuario); "cacheVerificacion" repite logins ya verificados. Para obtener logins por
+ * núcleo, dividir el resultado de todosLosNucleos por la cantidad de núcleos.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoginBenchmark {
+
+    private static final int USUARIOS = 64;
+
+    @Param({"10"})
+    private int costo;
+
+    @Param({"bcrypt", "cacheVerificacion"})
+    private String escenario;
+
+    private ContraseniaService contraseniaService;
+    private Usuario[] usuarios;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contraseniaService = DatosBenchmark.contraseniaService(costo);
+        usuarios = DatosBenchmark.usuariosConHash(USUARIOS, contraseniaService).toArray(new Usuario[0]);
+    }
+
+    @Setup(Level.Iteration)
+    public void vaciarCache() {
+        if ("bcrypt".equals(escenario)) {
+            contraseniaService.getVerificadas().invalidateAll();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean unHilo() {
+        return verificar();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean todosLosNucleos() {
+        return verificar();
+    }
+
+    private boolean verificar() {
+        int indice = ThreadLocalRandom.current().nextInt(USUARIOS);
+        Usuario usuario = usuarios[indice];
+        boolean valida = contraseniaService.verificar(DatosBenchmark.contrasenia(usuario.getId()), usuario.getContrasenia());
+        if ("bcrypt".equals(escenario)) {
+            contraseniaService.getVerificadas().invalidate(usuario.getContrasenia());
+        }
+        return valida;
+    }
+}
@@ -0,0 +1,98 @@
+package com.petsocity.petsocity.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Mide el tiempo de arranque en frío de la aplicación en cada modo disponible: jar ejecutable,
+ * jar extraído, jar extraído con el archivo CDS y, si se construyó con {@code -Paot}, con las
+ * clases de Spring AOT. Cada ejecución es un proceso nuevo que termina al refrescar el contexto
+ * ({@code spring.context.exit=onRefresh}); se mide desde el lanzamiento hasta que el proceso
+ * termina y se reporta la mediana y el mínimo.
+ * <p>
+ * Se ejecuta con {@code ./gradlew medirArranque [-Paot] [-Prepeticiones=5] [-ParranqueArgs=...]};
+ * ver README.
+ */
+public final class MedicionArranque {
+
+    private MedicionArranque() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String java = args[0];
+        int repeticiones = Integer.parseInt(args[1]);
+        Path jar = Path.of(args[2]);
+        Path jarExtraido = Path.of(args[3]);
+        Path archivoCds = Path.of(args[4]);
+        boolean aot = Boolean.parseBoolean(args[5]);
+        List<String> argsAplicacion = Arrays.asList(args).subList(6, args.length);
+
+        Map<String, List<String>> modos = new LinkedHashMap<>();
+        modos.put("jar", List.of("-jar", jar.toString()));
+        modos.put("extraido", List.of("-jar", jarExtraido.toString()));
+        boolean conCds = Files.isRegularFile(archivoCds);
+        if (conCds) {
+            modos.put("extraido+cds", List.of("-XX:SharedArchiveFile=" + archivoCds, "-jar", jarExtraido.toString()));
+        } else {
+            System.out.println("Sin " + archivoCds + " (./gradlew archivoCds): se omite el modo con CDS");
+        }
+        if (aot) {
+            modos.put("extraido+aot", List.of("-Dspring.aot.enabled=true", "-jar", jarExtraido.toString()));
+            if (conCds) {
+                modos.put("extraido+cds+aot", List.of("-XX:SharedArchiveFile=" + archivoCds,
+                    "-Dspring.aot.enabled=true", "-jar", jarExtraido.toString()));
+            }
+        }
+
+        StringJoiner json = new StringJoiner(",", "[", "]\n");
+        for (Map.Entry<String, List<String>> modo : modos.entrySet()) {
+            List<String> comando = new ArrayList<>();
+            comando.add(java);
+            comando.add("-Dspring.context.exit=onRefresh");
+            comando.addAll(modo.getValue());
+            comando.addAll(argsAplicacion);
+
+            // La primera ejecución calienta la cache de archivos del sistema operativo
+            ejecutar(comando);
+            long[] tiempos = new long[repeticiones];
+            for (int i = 0; i < repeticiones; i++) {
+                tiempos[i] = ejecutar(comando);
+            }
+            Arrays.sort(tiempos);
+            double mediana = tiempos[repeticiones / 2] / 1_000_000.0;
+            double minimo = tiempos[0] / 1_000_000.0;
+            System.out.printf(Locale.ROOT, "%-18s mediana %7.0f ms, minimo %7.0f ms (%d ejecuciones)%n",
+                modo.getKey(), mediana, minimo, repeticiones);
+            json.add(String.format(Locale.ROOT, "{\"modo\":\"%s\",\"ejecuciones\":%d,\"medianaMs\":%.0f,\"minimoMs\":%.0f}",
+                modo.getKey(), repeticiones, mediana, minimo));
+        }
+
+        Path salida = Path.of("build", "results", "arranque", "arranque.json");
+        Files.createDirectories(salida.getParent());
+        Files.writeString(salida, json.toString());
+        System.out.println("Resultado guardado en " + salida.toAbsolutePath());
+    }
+
+    private static long ejecutar(List<String> comando) throws IOException, InterruptedException {
+        long inicio = System.nanoTime();
+        Process proceso = new ProcessBuilder(comando).redirectErrorStream(true).start();
+        byte[] salida = proceso.getInputStream().readAllBytes();
+        int codigo = proceso.waitFor();
+        long duracion = System.nanoTime() - inicio;
+        if (codigo != 0) {
+            String texto = new String(salida, StandardCharsets.UTF_8);
+            System.err.println(texto.substring(Math.max(0, texto.length() - 4000)));
+            throw new IllegalStateException("La aplicación terminó con código " + codigo + ": " + comando);
+        }
+        return duracion;
+    }
+}
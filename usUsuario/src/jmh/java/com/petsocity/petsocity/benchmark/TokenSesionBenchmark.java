@@ -0,0 +1,59 @@
+package com.petsocity.petsocity.benchmark;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.petsocity.petsocity.model.ResumenUsuario;
+import com.petsocity.petsocity.model.SesionUsuario;
+import com.petsocity.petsocity.security.TokenSesionService;
+
+/**
+ * Costo de emitir y verificar un token de sesión: lo que paga otro servicio por solicitud
+ * para saber quién llama, en vez de un GET /api/v1/usuarios/{id}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenSesionBenchmark {
+
+    private static final ResumenUsuario USUARIO = new ResumenUsuario(42L, "Valentina", "valentina@petsocity.cl");
+
+    private TokenSesionService tokens;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        String clave = Base64.getEncoder().encodeToString("clave-del-benchmark-de-32-bytes!!".getBytes());
+        tokens = new TokenSesionService(new ObjectMapper(), List.of("k1:" + clave), Duration.ofMinutes(15),
+            Duration.ofHours(12), Duration.ofMinutes(5));
+        token = tokens.emitir(USUARIO);
+    }
+
+    @Benchmark
+    public String emitir() {
+        return tokens.emitir(USUARIO);
+    }
+
+    @Benchmark
+    public SesionUsuario verificar() {
+        return tokens.verificar(token);
+    }
+}
@@ -0,0 +1,90 @@
+package com.petsocity.petsocity.benchmark;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.petsocity.petsocity.assemblers.UsuarioModelAssembler;
+import com.petsocity.petsocity.controller.UsuarioController;
+import com.petsocity.petsocity.model.Usuario;
+
+/**
+ * Costo por fila de armar una colección HAL de 10.000 usuarios: enlaces con
+ * linkTo(methodOn(...)) por fila (implementación anterior) versus plantillas
+ * precalculadas por URI base (UsuarioModelAssembler actual).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class UsuarioModelAssemblerBenchmark {
+
+    private static final int FILAS = 10_000;
+
+    private List<Usuario> usuarios;
+    private UsuarioModelAssembler assembler;
+
+    @Setup
+    public void preparar() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/usuarios");
+        request.setServerName("api.petsocity.cl");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        assembler = new UsuarioModelAssembler();
+        usuarios = DatosBenchmark.usuarios(FILAS);
+    }
+
+    @TearDown
+    public void limpiar() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public EntityModel<Usuario> toModel() {
+        return assembler.toModel(usuarios.get(0));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILAS)
+    public CollectionModel<EntityModel<Usuario>> plantillasPrecalculadas() {
+        return assembler.toCollection(usuarios);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(FILAS)
+    public List<EntityModel<Usuario>> methodOnPorFila() {
+        List<EntityModel<Usuario>> modelos = new ArrayList<>(usuarios.size());
+        for (Usuario usuario : usuarios) {
+            EntityModel<Usuario> model = EntityModel.of(usuario);
+            model.add(linkTo(methodOn(UsuarioController.class).obtenerUsuarioPorId(usuario.getId(), null)).withSelfRel());
+            model.add(linkTo(UsuarioController.class).withRel("usuarios"));
+            model.add(linkTo(methodOn(UsuarioController.class).actualizarUsuario(usuario.getId(), null, null)).withRel("actualizar"));
+            model.add(linkTo(methodOn(UsuarioController.class).eliminarUsuario(usuario.getId())).withRel("eliminar"));
+            modelos.add(model);
+        }
+        return modelos;
+    }
+}
@@ -0,0 +1,88 @@
+package com.petsocity.petsocity.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.petsocity.petsocity.model.CredencialesUsuario;
+import com.petsocity.petsocity.model.Usuario;
+import com.petsocity.petsocity.repository.UsuarioRepository;
+
+/**
+ * UsuarioRepository en memoria para los benchmarks, de modo que midan el código del
+ * servicio y no la red ni MySQL. Sólo implementa los métodos usados por los caminos
+ * medidos; el resto lanza UnsupportedOperationException.
+ */
+final class UsuarioRepositoryEnMemoria {
+
+    private final Map<Long, Usuario> porId = new ConcurrentHashMap<>();
+    private final Map<String, Usuario> porEmail = new ConcurrentHashMap<>();
+    private final AtomicLong secuencia = new AtomicLong();
+    private final boolean retenerGuardados;
+
+    /**
+     * @param retenerGuardados si es false, save() asigna id pero no guarda la fila, para
+     *                         que un benchmark de altas no haga crecer el heap sin límite
+     */
+    UsuarioRepositoryEnMemoria(boolean retenerGuardados) {
+        this.retenerGuardados = retenerGuardados;
+    }
+
+    void cargar(Iterable<Usuario> usuarios) {
+        for (Usuario usuario : usuarios) {
+            porId.put(usuario.getId(), usuario);
+            porEmail.put(usuario.getEmail(), usuario);
+            secuencia.accumulateAndGet(usuario.getId(), Math::max);
+        }
+    }
+
+    UsuarioRepository comoRepositorio() {
+        return (UsuarioRepository) Proxy.newProxyInstance(
+            UsuarioRepository.class.getClassLoader(),
+            new Class<?>[] {UsuarioRepository.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "existsByEmail" -> porEmail.containsKey((String) args[0]);
+                case "findByEmail" -> Optional.ofNullable(porEmail.get((String) args[0]));
+                case "findCredencialesByEmail" -> Optional.ofNullable(porEmail.get((String) args[0])).map(CredencialesUsuario::de);
+                case "findById" -> Optional.ofNullable(porId.get((Long) args[0]));
+                case "save" -> guardar((Usuario) args[0]);
+                case "actualizarContrasenia" -> actualizarContrasenia((Long) args[0], (String) args[1], (String) args[2]);
+                case "toString" -> "UsuarioRepositoryEnMemoria";
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> throw new UnsupportedOperationException(method.getName());
+            });
+    }
+
+    private int actualizarContrasenia(Long id, String anterior, String nueva) {
+        Usuario usuario = porId.get(id);
+        if (usuario == null || !anterior.equals(usuario.getContrasenia())) {
+            return 0;
+        }
+        usuario.setContrasenia(nueva);
+        return 1;
+    }
+
+    private Usuario guardar(Usuario usuario) {
+        // Se devuelve una copia, igual que un merge de JPA: el id asignado no queda en la
+        // instancia recibida. Ésta sí llega modificada (contraseña con hash) desde UsuarioService.
+        Usuario guardado = new Usuario();
+        guardado.setId(usuario.getId() != null ? usuario.getId() : secuencia.incrementAndGet());
+        guardado.setNombre(usuario.getNombre());
+        guardado.setApellido(usuario.getApellido());
+        guardado.setEmail(usuario.getEmail());
+        guardado.setContrasenia(usuario.getContrasenia());
+        guardado.setTelefono(usuario.getTelefono());
+        guardado.setDireccion(usuario.getDireccion());
+        guardado.setRegion(usuario.getRegion());
+        guardado.setComuna(usuario.getComuna());
+        guardado.setFechaCreacion(usuario.getFechaCreacion());
+        if (retenerGuardados) {
+            porId.put(guardado.getId(), guardado);
+            porEmail.put(guardado.getEmail(), guardado);
+        }
+        return guardado;
+    }
+}
@@ -0,0 +1,92 @@
+package com.petsocity.petsocity.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import com.petsocity.petsocity.model.ResumenUsuario;
+import com.petsocity.petsocity.model.Usuario;
+import com.petsocity.petsocity.security.ContraseniaService;
+import com.petsocity.petsocity.service.UsuarioCache;
+import com.petsocity.petsocity.service.UsuarioService;
+import com.petsocity.petsocity.validation.UsuarioValidator;
+
+/**
+ * Caminos calientes de UsuarioService contra un repositorio en memoria:
+ * registro (validaciones de crearUsuario) y login.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UsuarioServiceBenchmark {
+
+    private static final int USUARIOS_REGISTRADOS = 1_000;
+
+    private UsuarioService registro;
+    private UsuarioService login;
+    // Se reutiliza: la validación lo rechaza antes de que crearUsuario lo modifique
+    private Usuario nombreInvalido;
+
+    @Setup
+    public void preparar() {
+        // Costo mínimo de bcrypt: aquí interesa el resto del camino; el costo real del
+        // hash se mide en LoginBenchmark
+        ContraseniaService contrasenias = DatosBenchmark.contraseniaService(4);
+        registro = new UsuarioService(new UsuarioRepositoryEnMemoria(false).comoRepositorio(), new UsuarioValidator(),
+            nuevoCache(), contrasenias, DatosBenchmark.sinTransacciones());
+
+        UsuarioRepositoryEnMemoria conDatos = new UsuarioRepositoryEnMemoria(true);
+        conDatos.cargar(DatosBenchmark.usuariosConHash(USUARIOS_REGISTRADOS, contrasenias));
+        login = new UsuarioService(conDatos.comoRepositorio(), new UsuarioValidator(), nuevoCache(), contrasenias,
+            DatosBenchmark.sinTransacciones());
+
+        nombreInvalido = DatosBenchmark.usuario(USUARIOS_REGISTRADOS + 2);
+        nombreInvalido.setId(null);
+        nombreInvalido.setNombre("Valentina 2");
+    }
+
+    // Mismo proveedor y configuración que spring.cache.caffeine.spec
+    private static UsuarioCache nuevoCache() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(UsuarioCache.USUARIOS_POR_ID, UsuarioCache.IDS_POR_EMAIL);
+        cacheManager.setCacheSpecification("maximumSize=10000,expireAfterWrite=5m,recordStats");
+        return new UsuarioCache(cacheManager, Duration.ofSeconds(5));
+    }
+
+    @Benchmark
+    public Usuario crearUsuario() {
+        // Uno nuevo por invocación: crearUsuario reemplaza la contraseña del argumento por su hash
+        Usuario nuevo = DatosBenchmark.usuario(USUARIOS_REGISTRADOS + 1);
+        nuevo.setId(null);
+        return registro.crearUsuario(nuevo);
+    }
+
+    @Benchmark
+    public Object crearUsuarioRechazado() {
+        try {
+            return registro.crearUsuario(nombreInvalido);
+        } catch (IllegalArgumentException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public ResumenUsuario loginUsuario() {
+        long id = ThreadLocalRandom.current().nextLong(1, USUARIOS_REGISTRADOS + 1);
+        return login.loginUsuario("usuario" + id + "@petsocity.cl", DatosBenchmark.contrasenia(id));
+    }
+}
@@ -0,0 +1,52 @@
+package com.petsocity.petsocity.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.petsocity.petsocity.model.Usuario;
+import com.petsocity.petsocity.validation.UsuarioValidator;
+
+/**
+ * Validación de un registro: los String.matches que hacía crearUsuario (un patrón
+ * compilado por llamada) versus UsuarioValidator.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidacionUsuarioBenchmark {
+
+    private UsuarioValidator validator;
+    private Usuario usuario;
+
+    @Setup
+    public void preparar() {
+        validator = new UsuarioValidator();
+        usuario = DatosBenchmark.usuario(7);
+    }
+
+    @Benchmark
+    public boolean stringMatches() {
+        return usuario.getNombre().matches("^[A-Za-zÁÉÍÓÚÑáéíóúñ ]+$")
+            && usuario.getApellido().matches("^[A-Za-zÁÉÍÓÚÑáéíóúñ ]+$")
+            && usuario.getEmail().matches("^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+    }
+
+    @Benchmark
+    public Map<String, String> usuarioValidator() {
+        return validator.validarRegistro(usuario);
+    }
+}
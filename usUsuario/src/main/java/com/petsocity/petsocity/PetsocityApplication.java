@@ -2,18 +2,13 @@ package com.petsocity.petsocity;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.cache.annotation.EnableCaching;
 
 @SpringBootApplication
+@EnableCaching
 public class PetsocityApplication {
 
 	public static void main(String[] args) {
 		SpringApplication.run(PetsocityApplication.class, args);
 	}
-
-	@Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
-    }
 }
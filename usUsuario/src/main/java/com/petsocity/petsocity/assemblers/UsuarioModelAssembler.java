@@ -2,14 +2,22 @@ package com.petsocity.petsocity.assemblers;
 
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
 import org.springframework.hateoas.server.RepresentationModelAssembler;
 import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import com.petsocity.petsocity.controller.UsuarioController;
+import com.petsocity.petsocity.model.FiltroUsuarios;
+import com.petsocity.petsocity.model.PaginaUsuarios;
 import com.petsocity.petsocity.model.Usuario;
 import com.petsocity.petsocity.model.ApiErrorModel;
 
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
@@ -17,20 +25,61 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 @Component
 public class UsuarioModelAssembler implements RepresentationModelAssembler<Usuario, EntityModel<Usuario>> {
 
+    private static final LinkRelation REL_USUARIOS = LinkRelation.of("usuarios");
+    private static final LinkRelation REL_ACTUALIZAR = LinkRelation.of("actualizar");
+    private static final LinkRelation REL_ELIMINAR = LinkRelation.of("eliminar");
+
+    // Las URI base posibles son pocas (host/puerto/proxy), pero vienen de la petición:
+    // se limita el tamaño para que un header Host arbitrario no haga crecer el mapa.
+    private static final int MAXIMO_PLANTILLAS = 32;
+
+    private final Map<String, PlantillaEnlaces> plantillas = new ConcurrentHashMap<>();
+
     @Override
     public EntityModel<Usuario> toModel(Usuario usuario) {
+        return toModel(usuario, plantillaActual());
+    }
+
+    private EntityModel<Usuario> toModel(Usuario usuario, PlantillaEnlaces plantilla) {
         EntityModel<Usuario> model = EntityModel.of(usuario);
 
         if (usuario.getId() != null) {
-            model.add(linkTo(methodOn(UsuarioController.class).obtenerUsuarioPorId(usuario.getId())).withSelfRel());
-            model.add(linkTo(methodOn(UsuarioController.class).obtenerTodosUsuarios()).withRel("usuarios"));
-            model.add(linkTo(methodOn(UsuarioController.class).actualizarUsuario(usuario.getId(), null)).withRel("actualizar"));
-            model.add(linkTo(methodOn(UsuarioController.class).eliminarUsuario(usuario.getId())).withRel("eliminar"));
+            // self, actualizar y eliminar comparten la URI /api/v1/usuarios/{id}
+            String recurso = plantilla.recurso(usuario.getId());
+            model.add(Link.of(recurso, IanaLinkRelations.SELF));
+            model.add(plantilla.usuarios());
+            model.add(Link.of(recurso, REL_ACTUALIZAR));
+            model.add(Link.of(recurso, REL_ELIMINAR));
         }
 
         return model;
     }
 
+    /**
+     * Obtiene las plantillas de enlaces para la URI base de la petición actual.
+     * La base se resuelve una sola vez por llamada (sin proxies de methodOn) y las
+     * plantillas se reutilizan entre peticiones que comparten la misma base, de modo
+     * que cada fila sólo paga una concatenación de strings.
+     */
+    PlantillaEnlaces plantillaActual() {
+        String base = linkTo(UsuarioController.class).toUri().toString();
+        PlantillaEnlaces plantilla = plantillas.get(base);
+        if (plantilla == null) {
+            plantilla = new PlantillaEnlaces(base + "/", Link.of(base, REL_USUARIOS));
+            if (plantillas.size() < MAXIMO_PLANTILLAS) {
+                plantillas.putIfAbsent(base, plantilla);
+            }
+        }
+        return plantilla;
+    }
+
+    record PlantillaEnlaces(String prefijoRecurso, Link usuarios) {
+
+        String recurso(Long id) {
+            return prefijoRecurso + id;
+        }
+    }
+
     /**
      * Método auxiliar para envolver mensajes de error dentro de una estructura HATEOAS.
      * Recibe una clave (por ejemplo, "error") y un mensaje explicativo, construyendo
@@ -46,7 +95,7 @@ public class UsuarioModelAssembler implements RepresentationModelAssembler<Usuar
     
     public EntityModel<ApiErrorModel> wrapError(ApiErrorModel error) {
         return EntityModel.of(error,
-            linkTo(methodOn(UsuarioController.class).obtenerTodosUsuarios()).withRel("usuarios")
+            linkTo(UsuarioController.class).withRel("usuarios")
         );
     }
 
@@ -65,12 +114,79 @@ public class UsuarioModelAssembler implements RepresentationModelAssembler<Usuar
      */
 
     public CollectionModel<EntityModel<Usuario>> toCollection(List<Usuario> listaUsuarios) {
+        PlantillaEnlaces plantilla = plantillaActual();
         List<EntityModel<Usuario>> modelos = listaUsuarios.stream()
-            .map(this::toModel)
+            .map(usuario -> toModel(usuario, plantilla))
             .collect(Collectors.toList());
 
         return CollectionModel.of(modelos,
-            linkTo(methodOn(UsuarioController.class).obtenerTodosUsuarios()).withSelfRel()
+            linkTo(UsuarioController.class).withSelfRel()
+        );
+    }
+
+    /**
+     * Envoltorio de una página de usuarios obtenida por cursor.
+     * Además del enlace self, agrega el enlace "next" con el cursor (after) de la
+     * siguiente página cuando aún quedan usuarios por recorrer, de modo que el cliente
+     * pueda navegar la colección completa sin conocer el tamaño de la tabla.
+     *
+     * @param pagina página obtenida desde el servicio
+     * @param after cursor usado para obtener la página actual (puede ser nulo)
+     * @param limit tamaño de página efectivo
+     * @return CollectionModel con los usuarios de la página y enlaces de navegación
+     */
+
+    public CollectionModel<EntityModel<Usuario>> toPagina(PaginaUsuarios pagina, Long after, int limit) {
+        PlantillaEnlaces plantilla = plantillaActual();
+        List<EntityModel<Usuario>> modelos = pagina.getUsuarios().stream()
+            .map(usuario -> toModel(usuario, plantilla))
+            .collect(Collectors.toList());
+
+        UriComponentsBuilder base = linkTo(UsuarioController.class).toUriComponentsBuilder();
+        return coleccionPaginada(modelos, base, pagina.getSiguienteCursor(), after, limit);
+    }
+
+    /**
+     * Igual que {@link #toPagina}, con los enlaces apuntando a /buscar y conservando los filtros.
+     */
+    public CollectionModel<EntityModel<Usuario>> toPaginaBusqueda(PaginaUsuarios pagina, FiltroUsuarios filtro,
+            Long after, int limit) {
+        PlantillaEnlaces plantilla = plantillaActual();
+        List<EntityModel<Usuario>> modelos = pagina.getUsuarios().stream()
+            .map(usuario -> toModel(usuario, plantilla))
+            .collect(Collectors.toList());
+
+        UriComponentsBuilder base = linkTo(UsuarioController.class).toUriComponentsBuilder().path("/buscar");
+        agregarParametro(base, "region", filtro.getRegion());
+        agregarParametro(base, "comuna", filtro.getComuna());
+        agregarParametro(base, "nombre", filtro.getNombre());
+        return coleccionPaginada(modelos, base, pagina.getSiguienteCursor(), after, limit);
+    }
+
+    private static void agregarParametro(UriComponentsBuilder builder, String nombre, String valor) {
+        if (valor != null && !valor.isBlank()) {
+            builder.queryParam(nombre, valor);
+        }
+    }
+
+    private static CollectionModel<EntityModel<Usuario>> coleccionPaginada(List<EntityModel<Usuario>> modelos,
+            UriComponentsBuilder base, Long siguienteCursor, Long after, int limit) {
+        CollectionModel<EntityModel<Usuario>> coleccion = CollectionModel.of(modelos,
+            enlacePagina(base, after, limit, IanaLinkRelations.SELF)
         );
+        if (siguienteCursor != null) {
+            coleccion.add(enlacePagina(base, siguienteCursor, limit, IanaLinkRelations.NEXT));
+        }
+        return coleccion;
+    }
+
+    // Se arma la URI a mano para no dejar variables de plantilla ({&after}) en el enlace
+    private static Link enlacePagina(UriComponentsBuilder base, Long after, int limit, LinkRelation rel) {
+        UriComponentsBuilder builder = base.cloneBuilder();
+        if (after != null) {
+            builder.queryParam("after", after);
+        }
+        builder.queryParam("limit", limit);
+        return Link.of(builder.toUriString(), rel);
     }
 }
\ No newline at end of file
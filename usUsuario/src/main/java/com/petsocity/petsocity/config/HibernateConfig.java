@@ -0,0 +1,20 @@
+package com.petsocity.petsocity.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.petsocity.petsocity.observabilidad.ContadorSentenciasSql;
+
+@Configuration
+public class HibernateConfig {
+
+    /**
+     * Registra el contador de sentencias SQL por solicitud.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer contadorSentenciasSql() {
+        return propiedades -> propiedades.put(AvailableSettings.STATEMENT_INSPECTOR, new ContadorSentenciasSql());
+    }
+}
@@ -0,0 +1,148 @@
+package com.petsocity.petsocity.config;
+
+import java.time.Duration;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+
+/**
+ * Cliente HTTP para las llamadas a otros microservicios: pool de conexiones con límite
+ * por ruta, timeouts de conexión/lectura/espera de conexión libre y keep-alive acotado.
+ * Además define el circuit breaker y el bulkhead de las llamadas a ubicaciones.
+ * El pool, el circuit breaker y el bulkhead publican sus métricas en /actuator/metrics.
+ */
+@Configuration
+public class HttpClienteConfig {
+
+    public static final String UBICACIONES = "ubicaciones";
+
+    @Bean
+    public PoolingHttpClientConnectionManager poolConexiones(
+            @Value("${http-cliente.conexiones-maximas:50}") int conexionesMaximas,
+            @Value("${http-cliente.conexiones-por-ruta:20}") int conexionesPorRuta,
+            @Value("${http-cliente.timeout-conexion:1s}") Duration timeoutConexion,
+            @Value("${http-cliente.timeout-lectura:3s}") Duration timeoutLectura,
+            @Value("${http-cliente.validar-inactivas:10s}") Duration validarInactivas,
+            @Value("${http-cliente.vida-maxima:5m}") Duration vidaMaxima) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+            .setMaxConnTotal(conexionesMaximas)
+            .setMaxConnPerRoute(conexionesPorRuta)
+            .setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(timeoutConexion))
+                .setSocketTimeout(Timeout.of(timeoutLectura))
+                .setValidateAfterInactivity(TimeValue.of(validarInactivas))
+                .setTimeToLive(TimeValue.of(vidaMaxima))
+                .build())
+            .build();
+    }
+
+    @Bean
+    public CloseableHttpClient httpCliente(PoolingHttpClientConnectionManager poolConexiones,
+            @Value("${http-cliente.timeout-pedir-conexion:500ms}") Duration timeoutPedirConexion,
+            @Value("${http-cliente.timeout-lectura:3s}") Duration timeoutLectura,
+            @Value("${http-cliente.keep-alive:30s}") Duration keepAlive) {
+        return HttpClients.custom()
+            .setConnectionManager(poolConexiones)
+            .setDefaultRequestConfig(RequestConfig.custom()
+                // Si el pool está agotado se falla rápido en vez de encolar hilos
+                .setConnectionRequestTimeout(Timeout.of(timeoutPedirConexion))
+                .setResponseTimeout(Timeout.of(timeoutLectura))
+                // Se usa cuando el servidor no envía el header Keep-Alive
+                .setConnectionKeepAlive(TimeValue.of(keepAlive))
+                .build())
+            .evictExpiredConnections()
+            .evictIdleConnections(TimeValue.of(keepAlive))
+            .build();
+    }
+
+    /**
+     * Construido desde RestTemplateBuilder para que Spring registre las métricas
+     * http.client.requests de cada llamada.
+     */
+    @Bean
+    public RestTemplate restTemplate(RestTemplateBuilder builder, CloseableHttpClient httpCliente) {
+        return builder
+            .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(httpCliente))
+            .build();
+    }
+
+    @Bean
+    public MeterBinder metricasPoolConexiones(PoolingHttpClientConnectionManager poolConexiones) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(poolConexiones, "salientes");
+    }
+
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry(
+            @Value("${ubicaciones.circuit-breaker.umbral-fallos:50}") float umbralFallos,
+            @Value("${ubicaciones.circuit-breaker.llamadas-minimas:10}") int llamadasMinimas,
+            @Value("${ubicaciones.circuit-breaker.espera-abierto:30s}") Duration esperaAbierto,
+            @Value("${http-cliente.timeout-lectura:3s}") Duration timeoutLectura) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+            .slidingWindowSize(20)
+            .minimumNumberOfCalls(llamadasMinimas)
+            .failureRateThreshold(umbralFallos)
+            // Las llamadas que se acercan al timeout también cuentan como degradación
+            .slowCallDurationThreshold(timeoutLectura.dividedBy(2))
+            .slowCallRateThreshold(80)
+            .waitDurationInOpenState(esperaAbierto)
+            .permittedNumberOfCallsInHalfOpenState(2)
+            // Una región inexistente (404) no es una falla del servicio
+            .ignoreExceptions(HttpClientErrorException.class)
+            .build();
+        return CircuitBreakerRegistry.of(config);
+    }
+
+    @Bean
+    public BulkheadRegistry bulkheadRegistry(
+            @Value("${ubicaciones.bulkhead.llamadas-concurrentes:10}") int llamadasConcurrentes) {
+        BulkheadConfig config = BulkheadConfig.custom()
+            .maxConcurrentCalls(llamadasConcurrentes)
+            .maxWaitDuration(Duration.ZERO)
+            .build();
+        return BulkheadRegistry.of(config);
+    }
+
+    @Bean
+    public CircuitBreaker ubicacionesCircuitBreaker(CircuitBreakerRegistry registry) {
+        return registry.circuitBreaker(UBICACIONES);
+    }
+
+    @Bean
+    public Bulkhead ubicacionesBulkhead(BulkheadRegistry registry) {
+        return registry.bulkhead(UBICACIONES);
+    }
+
+    @Bean
+    public MeterBinder metricasCircuitBreakers(CircuitBreakerRegistry registry) {
+        return TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry);
+    }
+
+    @Bean
+    public MeterBinder metricasBulkheads(BulkheadRegistry registry) {
+        return TaggedBulkheadMetrics.ofBulkheadRegistry(registry);
+    }
+}
@@ -0,0 +1,21 @@
+package com.petsocity.petsocity.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Habilita {@code @Timed} en los servicios. Los endpoints (http.server.requests), los
+ * repositorios (spring.data.repository.invocations), Hikari, los caches y el cliente HTTP
+ * los instrumenta Spring Boot Actuator sin configuración adicional.
+ */
+@Configuration
+public class MetricasConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
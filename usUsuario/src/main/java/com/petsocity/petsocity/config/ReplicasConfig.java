@@ -0,0 +1,74 @@
+package com.petsocity.petsocity.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.petsocity.petsocity.repository.ReplicasDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Réplicas de lectura. Sólo se activa con {@code replicas.urls} (lista separada por comas);
+ * sin esa propiedad Spring Boot configura el DataSource único de siempre.
+ * <p>
+ * El DataSource que usan JPA, Flyway y JdbcTemplate es un LazyConnectionDataSourceProxy:
+ * toma la conexión recién en la primera sentencia, cuando ya sabe si la transacción es de
+ * sólo lectura ({@code @Transactional(readOnly = true)} y las lecturas de los repositorios).
+ * Esas van a ReplicasDataSource; el resto, a la primaria.
+ */
+@Configuration
+@ConditionalOnProperty(name = "replicas.urls")
+public class ReplicasConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaria(DataSourceProperties propiedades) {
+        return propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicasDataSource replicas(HikariDataSource primaria, DataSourceProperties propiedades,
+            @Value("${replicas.urls}") List<String> urls,
+            @Value("${replicas.username:${spring.datasource.username:}}") String usuario,
+            @Value("${replicas.password:${spring.datasource.password:}}") String contrasenia,
+            @Value("${replicas.conexiones-maximas:10}") int conexionesMaximas,
+            @Value("${replicas.timeout-conexion:1s}") Duration timeoutConexion,
+            @Value("${replicas.chequeo:5s}") Duration chequeo) {
+        Map<String, DataSource> pools = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + (i + 1));
+            pool.setJdbcUrl(urls.get(i).trim());
+            pool.setUsername(usuario);
+            pool.setPassword(contrasenia);
+            pool.setDriverClassName(propiedades.determineDriverClassName());
+            pool.setMaximumPoolSize(conexionesMaximas);
+            pool.setConnectionTimeout(timeoutConexion.toMillis());
+            pool.setReadOnly(true);
+            // Una réplica caída no impide arrancar: el chequeo la deja fuera hasta que responda
+            pool.setInitializationFailTimeout(-1);
+            pools.put(pool.getPoolName(), pool);
+        }
+        return new ReplicasDataSource(primaria, pools, chequeo);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaria, ReplicasDataSource replicas) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primaria);
+        proxy.setReadOnlyDataSource(replicas);
+        return proxy;
+    }
+}
@@ -2,8 +2,28 @@ package com.petsocity.petsocity.controller;
 
 import com.petsocity.petsocity.assemblers.UsuarioModelAssembler;
 import com.petsocity.petsocity.model.ApiErrorModel;
+import com.petsocity.petsocity.model.FiltroUsuarios;
+import com.petsocity.petsocity.model.LoteUsuarios;
+import com.petsocity.petsocity.model.PaginaUsuarios;
+import com.petsocity.petsocity.model.ResultadoImportacion;
+import com.petsocity.petsocity.model.ResumenUsuario;
+import com.petsocity.petsocity.model.SesionUsuario;
+import com.petsocity.petsocity.model.SolicitudLoteUsuarios;
 import com.petsocity.petsocity.model.Usuario;
+import com.petsocity.petsocity.security.LimiteExcedidoException;
+import com.petsocity.petsocity.security.LimitesSolicitudes;
+import com.petsocity.petsocity.security.ServicioSaturadoException;
+import com.petsocity.petsocity.security.TokenSesionFilter;
+import com.petsocity.petsocity.security.TokenSesionInvalidoException;
+import com.petsocity.petsocity.security.TokenSesionService;
+import com.petsocity.petsocity.service.ImportacionUsuariosService;
+import com.petsocity.petsocity.service.UbicacionesNoDisponiblesException;
+import com.petsocity.petsocity.service.UbicacionesService;
 import com.petsocity.petsocity.service.UsuarioService;
+import com.petsocity.petsocity.service.VersionNoCoincideException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,17 +32,26 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.MediaType;
 import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import jakarta.validation.Valid;
+import jakarta.servlet.http.HttpServletRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
@@ -34,17 +63,31 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.*;
 @Tag(name = "Usuarios", description = "Operaciones CRUD de usuarios")
 public class UsuarioController {
 
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     private final UsuarioService usuarioService;
     private final UsuarioModelAssembler assembler;
+    private final ObjectMapper objectMapper;
+    private final ImportacionUsuariosService importacionService;
+    private final UbicacionesService ubicacionesService;
+    private final TokenSesionService tokenSesionService;
+    private final LimitesSolicitudes limites;
 
-    public UsuarioController(UsuarioService usuarioService, UsuarioModelAssembler assembler) {
+    public UsuarioController(UsuarioService usuarioService, UsuarioModelAssembler assembler, ObjectMapper objectMapper,
+            ImportacionUsuariosService importacionService, UbicacionesService ubicacionesService,
+            TokenSesionService tokenSesionService, LimitesSolicitudes limites) {
         this.usuarioService = usuarioService;
         this.assembler = assembler;
+        this.objectMapper = objectMapper;
+        this.importacionService = importacionService;
+        this.ubicacionesService = ubicacionesService;
+        this.tokenSesionService = tokenSesionService;
+        this.limites = limites;
     }
 
-    // Leer todo
+    // Leer todo (paginado por cursor)
     @GetMapping(produces = {MediaTypes.HAL_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
-    @Operation(summary = "Obtener lista completa de usuarios", description = "Retorna todos los usuarios registrados")
+    @Operation(summary = "Obtener lista paginada de usuarios", description = "Retorna los usuarios ordenados por ID, paginados por cursor (after) con un maximo de " + UsuarioService.LIMITE_MAXIMO + " por pagina")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", 
             description = "Operacion exitosa",
@@ -55,15 +98,118 @@ public class UsuarioController {
             content = @Content(mediaType = "application/json",
             schema = @Schema(implementation = ApiErrorModel.class)))
     })
-    public CollectionModel<EntityModel<Usuario>> obtenerTodosUsuarios() {
-        List<Usuario> usuarios = usuarioService.obtenerTodosUsuarios();
-        return assembler.toCollection(usuarios);
+    public CollectionModel<EntityModel<Usuario>> obtenerTodosUsuarios(
+            @RequestParam(name = "after", required = false) Long after,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        int limite = UsuarioService.normalizarLimite(limit);
+        PaginaUsuarios pagina = usuarioService.obtenerPaginaUsuarios(after, limite);
+        return assembler.toPagina(pagina, after, limite);
+    }
+
+    // Búsqueda por región, comuna y prefijo del nombre (paginada por cursor)
+    @GetMapping(value = "/buscar", produces = {MediaTypes.HAL_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Buscar usuarios",
+        description = "Filtra por region, comuna y/o prefijo del nombre. Ordenado por ID y paginado por cursor (after) con un maximo de "
+            + UsuarioService.LIMITE_MAXIMO + " por pagina")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200",
+            description = "Operacion exitosa",
+            content = @Content(mediaType = "application/json",
+            schema = @Schema(implementation = Usuario.class)))
+    })
+    public CollectionModel<EntityModel<Usuario>> buscarUsuarios(
+            @RequestParam(name = "region", required = false) String region,
+            @RequestParam(name = "comuna", required = false) String comuna,
+            @RequestParam(name = "nombre", required = false) String nombre,
+            @RequestParam(name = "after", required = false) Long after,
+            @RequestParam(name = "limit", required = false) Integer limit) {
+        int limite = UsuarioService.normalizarLimite(limit);
+        FiltroUsuarios filtro = new FiltroUsuarios(region, comuna, nombre);
+        PaginaUsuarios pagina = usuarioService.buscarUsuarios(filtro, after, limite);
+        return assembler.toPaginaBusqueda(pagina, filtro, after, limite);
+    }
+
+    // Exportar todos los usuarios como NDJSON (una linea JSON por usuario)
+    @GetMapping(value = "/exportar", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Exportar usuarios", description = "Entrega todos los usuarios en formato NDJSON, escribiendo cada fila a medida que se lee desde la BD")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", 
+            description = "Exportacion en curso",
+            content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+            schema = @Schema(implementation = Usuario.class)))
+    })
+    public ResponseEntity<StreamingResponseBody> exportarUsuarios() {
+        ObjectWriter writer = objectMapper.writerFor(Usuario.class);
+        StreamingResponseBody cuerpo = salida -> usuarioService.exportarUsuarios(usuario -> {
+            try {
+                salida.write(writer.writeValueAsBytes(usuario));
+                salida.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(cuerpo);
+    }
+
+    // Leer varios usuarios por ID y/o correo en una sola llamada
+    @GetMapping(value = "/lote", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Obtener usuarios por lote", description = "Busca hasta " + UsuarioService.LIMITE_MAXIMO + " usuarios por ID (ids=1,2,3) y/o correo (emails=a@b.cl,c@d.cl) con una sola consulta por tipo")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", 
+            description = "Usuarios encontrados, indexados por la clave solicitada",
+            content = @Content(mediaType = "application/json", 
+            schema = @Schema(implementation = LoteUsuarios.class))),
+        @ApiResponse(responseCode = "400", 
+            description = "Sin claves o demasiadas claves",
+            content = @Content(mediaType = "application/json", 
+            schema = @Schema(implementation = ApiErrorModel.class)))
+    })
+    public ResponseEntity<?> obtenerLoteUsuarios(
+            @RequestParam(name = "ids", required = false) List<Long> ids,
+            @RequestParam(name = "emails", required = false) List<String> emails) {
+        return respuestaLote(ids, emails);
+    }
+
+    @PostMapping(value = "/lote", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Obtener usuarios por lote (POST)", description = "Igual que GET /lote, con las claves en el cuerpo para listas largas de correos")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", 
+            description = "Usuarios encontrados, indexados por la clave solicitada",
+            content = @Content(mediaType = "application/json", 
+            schema = @Schema(implementation = LoteUsuarios.class))),
+        @ApiResponse(responseCode = "400", 
+            description = "Sin claves o demasiadas claves",
+            content = @Content(mediaType = "application/json", 
+            schema = @Schema(implementation = ApiErrorModel.class)))
+    })
+    public ResponseEntity<?> buscarLoteUsuarios(@RequestBody SolicitudLoteUsuarios solicitud) {
+        return respuestaLote(solicitud.getIds(), solicitud.getEmails());
+    }
+
+    private ResponseEntity<?> respuestaLote(List<Long> ids, List<String> emails) {
+        try {
+            return ResponseEntity.ok(usuarioService.obtenerLote(ids, emails));
+        } catch (IllegalArgumentException e) {
+            ApiErrorModel error = new ApiErrorModel(
+                "Solicitud invalida",
+                e.getMessage(), 400,
+                "/api/v1/usuarios/lote",
+                LocalDateTime.now()
+            );
+            return ResponseEntity.badRequest()
+                .contentType(MediaTypes.HAL_JSON)
+                .body(assembler.wrapError(error));
+        }
     }
 
     // Leer por ID
     @GetMapping(value = "/{id}", produces = {MediaTypes.HAL_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
-    @Operation(summary = "Obtener un usuario por ID", description = "Busca un usuario especifico usando su ID")
+    @Operation(summary = "Obtener un usuario por ID",
+        description = "Busca un usuario especifico usando su ID. Devuelve ETag; con If-None-Match responde 304 si no cambió")
     @ApiResponses(value = {
+        @ApiResponse(responseCode = "304", description = "El usuario no cambió desde el ETag indicado"),
         @ApiResponse(responseCode = "200", 
             description = "Usuario encontrado",
             content = @Content(mediaType = "application/json", 
@@ -73,7 +219,7 @@ public class UsuarioController {
             content = @Content(mediaType = "application/json", 
             schema = @Schema(implementation = ApiErrorModel.class)))
     })
-    public ResponseEntity<EntityModel<?>> obtenerUsuarioPorId(@PathVariable (name = "id") Long id) {
+    public ResponseEntity<EntityModel<?>> obtenerUsuarioPorId(@PathVariable (name = "id") Long id, WebRequest request) {
         Usuario usuario = usuarioService.obtenerPorIdUsuario(id);
 
         if (usuario == null) {
@@ -87,7 +233,12 @@ public class UsuarioController {
                 .contentType(MediaTypes.HAL_JSON)
                 .body(assembler.wrapError(error));
         }
-        return ResponseEntity.ok(assembler.toModel(usuario));
+        String etag = etag(usuario);
+        // El cliente ya tiene esta versión: 304 sin armar el modelo HATEOAS ni serializar
+        if (request != null && request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(assembler.toModel(usuario));
     }
 
     // Crear usuario
@@ -101,12 +252,30 @@ public class UsuarioController {
         @ApiResponse(responseCode = "400", 
             description = "Datos invalidos o duplicados",
             content = @Content(mediaType = "application/json", 
+            schema = @Schema(implementation = ApiErrorModel.class))),
+        @ApiResponse(responseCode = "429",
+            description = "Demasiados registros desde la misma direccion",
+            content = @Content(mediaType = "application/json",
             schema = @Schema(implementation = ApiErrorModel.class)))
     })
-    public ResponseEntity<EntityModel<?>> crearUsuario(@RequestBody @Valid Usuario usuario) {
+    public ResponseEntity<EntityModel<?>> crearUsuario(@RequestBody Usuario usuario, HttpServletRequest request) {
+        try {
+            limites.verificarRegistro(request.getRemoteAddr());
+        } catch (LimiteExcedidoException e) {
+            ApiErrorModel error = new ApiErrorModel(
+                "Demasiadas solicitudes",
+                e.getMessage(), 429,
+                "/api/v1/usuarios",
+                LocalDateTime.now()
+            );
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getSegundosReintento()))
+                .contentType(MediaTypes.HAL_JSON)
+                .body(assembler.wrapError(error));
+        }
         try {
             Usuario creado = usuarioService.crearUsuario(usuario);
-            URI location = linkTo(methodOn(UsuarioController.class).obtenerUsuarioPorId(creado.getId())).toUri();
+            URI location = linkTo(methodOn(UsuarioController.class).obtenerUsuarioPorId(creado.getId(), null)).toUri();
             return ResponseEntity.created(location)
                 .contentType(MediaTypes.HAL_JSON)
                 .body(assembler.toModel(creado));
@@ -123,22 +292,132 @@ public class UsuarioController {
         }
     }
 
+    // Importacion masiva (arreglo JSON o CSV con cabecera)
+    @PostMapping(value = "/importar", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Importar usuarios (JSON)", description = "Crea usuarios en bloque a partir de un arreglo JSON. Las filas invalidas se informan sin detener la importacion")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", 
+            description = "Importacion procesada",
+            content = @Content(mediaType = "application/json", 
+            schema = @Schema(implementation = ResultadoImportacion.class))),
+        @ApiResponse(responseCode = "400", 
+            description = "El cuerpo no es un arreglo JSON",
+            content = @Content(mediaType = "application/json", 
+            schema = @Schema(implementation = ApiErrorModel.class)))
+    })
+    public ResponseEntity<?> importarUsuariosJson(InputStream entrada) throws IOException {
+        try {
+            return ResponseEntity.ok(importacionService.importarJson(entrada));
+        } catch (IllegalArgumentException e) {
+            return errorImportacion(e);
+        }
+    }
+
+    @PostMapping(value = "/importar", consumes = TEXT_CSV_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Importar usuarios (CSV)", description = "Crea usuarios en bloque a partir de un CSV con cabecera (nombre,apellido,email,contrasenia,telefono,direccion,region,comuna)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", 
+            description = "Importacion procesada",
+            content = @Content(mediaType = "application/json", 
+            schema = @Schema(implementation = ResultadoImportacion.class))),
+        @ApiResponse(responseCode = "400", 
+            description = "CSV sin cabecera valida",
+            content = @Content(mediaType = "application/json", 
+            schema = @Schema(implementation = ApiErrorModel.class)))
+    })
+    public ResponseEntity<?> importarUsuariosCsv(InputStream entrada) throws IOException {
+        try {
+            return ResponseEntity.ok(importacionService.importarCsv(new InputStreamReader(entrada, StandardCharsets.UTF_8)));
+        } catch (IllegalArgumentException e) {
+            return errorImportacion(e);
+        }
+    }
+
+    private ResponseEntity<?> errorImportacion(IllegalArgumentException e) {
+        ApiErrorModel error = new ApiErrorModel(
+            "Error de importacion",
+            e.getMessage(), 400,
+            "/api/v1/usuarios/importar",
+            LocalDateTime.now()
+        );
+        return ResponseEntity.badRequest()
+            .contentType(MediaTypes.HAL_JSON)
+            .body(assembler.wrapError(error));
+    }
+
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Map<String, String> credentials) {
+    public ResponseEntity<?> login(@RequestBody Map<String, String> credentials, HttpServletRequest request) {
         String email = credentials.get("email");
         String contrasenia = credentials.get("contrasenia");
     
-        Usuario usuario = usuarioService.loginUsuario(email, contrasenia);
+        ResumenUsuario usuario;
+        try {
+            // Antes del servicio: un intento rechazado no consulta la BD ni verifica la contraseña
+            limites.verificarLogin(request.getRemoteAddr(), email);
+            usuario = usuarioService.loginUsuario(email, contrasenia);
+        } catch (LimiteExcedidoException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getSegundosReintento()))
+                .body(Map.of("mensaje", e.getMessage()));
+        } catch (ServicioSaturadoException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("mensaje", e.getMessage()));
+        }
         if (usuario == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                 .body(Map.of("mensaje", "Correo o contraseña incorrecta"));
         }
-    
-        // Opcional: crear cookie de sesión aquí    
+        limites.loginExitoso(email);
+
+        // El token lo verifican los otros servicios sin volver a consultar este (VerificadorTokenSesion)
         return ResponseEntity.ok(Map.of(
             "id", usuario.getId(),
             "nombre", usuario.getNombre(),
-            "correo", usuario.getEmail()
+            "correo", usuario.getEmail(),
+            "token", tokenSesionService.emitir(usuario),
+            "tipo", "Bearer",
+            "expiraEn", tokenSesionService.getDuracion().toSeconds()
+        ));
+    }
+
+    // Usuario del token de sesión, verificado por TokenSesionFilter sin consultar la BD
+    @GetMapping("/sesion")
+    @Operation(summary = "Usuario de la sesion", description = "Datos del token Bearer enviado en Authorization")
+    public ResponseEntity<?> obtenerSesion(@RequestAttribute(name = TokenSesionFilter.ATRIBUTO, required = false) SesionUsuario sesion) {
+        if (sesion == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .header(HttpHeaders.WWW_AUTHENTICATE, "Bearer")
+                .body(Map.of("mensaje", "Se requiere un token de sesión"));
+        }
+        return ResponseEntity.ok(Map.of(
+            "id", sesion.getId(),
+            "nombre", sesion.getNombre(),
+            "correo", sesion.getEmail(),
+            "expira", sesion.getExpira().toString()
+        ));
+    }
+
+    // Renovar el token: acepta uno vigente o recién expirado y relee el usuario (caché)
+    @PostMapping("/sesion/renovar")
+    @Operation(summary = "Renovar el token de sesion", description = "Emite un token nuevo a partir del token Bearer enviado en Authorization")
+    public ResponseEntity<?> renovarSesion(HttpServletRequest request) {
+        String nuevo;
+        try {
+            nuevo = tokenSesionService.renovar(TokenSesionFilter.token(request), id -> {
+                Usuario usuario = usuarioService.obtenerPorIdUsuario(id);
+                return usuario == null ? null : new ResumenUsuario(usuario.getId(), usuario.getNombre(), usuario.getEmail());
+            });
+        } catch (TokenSesionInvalidoException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .header(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"")
+                .body(Map.of("mensaje", e.getMessage()));
+        }
+        // Cerca de sesion.duracion-maxima el token nuevo dura menos que sesion.duracion
+        return ResponseEntity.ok(Map.of(
+            "token", nuevo,
+            "tipo", "Bearer",
+            "expira", tokenSesionService.verificar(nuevo).getExpira().toString()
         ));
     }
     
@@ -146,8 +425,11 @@ public class UsuarioController {
 
     // Actualizar usuario
     @PutMapping(value = "/{id}", produces = {MediaTypes.HAL_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
-    @Operation(summary = "Actualizar usuario", description = "Modifica atributos del usuario por su ID")
+    @Operation(summary = "Actualizar usuario",
+        description = "Modifica atributos del usuario por su ID. Con If-Match sólo actualiza si el ETag coincide")
     @ApiResponses(value = {
+        @ApiResponse(responseCode = "409", description = "Otra solicitud modificó el usuario al mismo tiempo"),
+        @ApiResponse(responseCode = "412", description = "El ETag de If-Match no es la versión actual"),
         @ApiResponse(responseCode = "200", 
             description = "Usuario actualizado",
             content = @Content(mediaType = "application/json", 
@@ -157,9 +439,29 @@ public class UsuarioController {
             content = @Content(mediaType = "application/json", 
             schema = @Schema(implementation = ApiErrorModel.class)))
     })
-    public ResponseEntity<EntityModel<?>> actualizarUsuario(@PathVariable(name = "id") Long id, @RequestBody Usuario usuario) {
+    public ResponseEntity<EntityModel<?>> actualizarUsuario(@PathVariable(name = "id") Long id, @RequestBody Usuario usuario,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        Usuario actualizado = usuarioService.actualizarUsuario(id, usuario);
+        Usuario actualizado;
+        try {
+            actualizado = usuarioService.actualizarUsuario(id, usuario, versionDeIfMatch(ifMatch));
+        } catch (VersionNoCoincideException e) {
+            return conflictoDeVersion(id, HttpStatus.PRECONDITION_FAILED, e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            // Otra solicitud escribió entre la lectura y el commit
+            return conflictoDeVersion(id, ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT,
+                "El usuario " + id + " fue modificado por otra solicitud");
+        } catch (IllegalArgumentException e) {
+            ApiErrorModel error = new ApiErrorModel(
+                "Error de validacion",
+                e.getMessage(), 400,
+                "/api/v1/usuarios/" + id,
+                LocalDateTime.now()
+            );
+            return ResponseEntity.badRequest()
+                .contentType(MediaTypes.HAL_JSON)
+                .body(assembler.wrapError(error));
+        }
         if (actualizado == null) {
             ApiErrorModel error = new ApiErrorModel(
                 "Usuario no encontrado",
@@ -173,9 +475,95 @@ public class UsuarioController {
         }
         return ResponseEntity.ok()
             .contentType(MediaTypes.HAL_JSON)
+            .eTag(etag(actualizado))
             .body(assembler.toModel(actualizado));
     }
 
+    // Actualizar sólo los campos enviados
+    @PatchMapping(value = "/{id}", produces = {MediaTypes.HAL_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Actualizar campos del usuario",
+        description = "Modifica sólo los atributos enviados, con un único UPDATE y sin devolver el usuario. "
+            + "Con If-Match sólo actualiza si el ETag coincide")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "412", description = "El ETag de If-Match no es la versión actual"),
+        @ApiResponse(responseCode = "204", description = "Usuario actualizado"),
+        @ApiResponse(responseCode = "400",
+            description = "Datos invalidos o correo ya registrado",
+            content = @Content(mediaType = "application/json",
+            schema = @Schema(implementation = ApiErrorModel.class))),
+        @ApiResponse(responseCode = "404",
+            description = "Usuario no encontrado",
+            content = @Content(mediaType = "application/json",
+            schema = @Schema(implementation = ApiErrorModel.class)))
+    })
+    public ResponseEntity<?> actualizarParcialmente(@PathVariable(name = "id") Long id, @RequestBody Usuario cambios,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        boolean actualizado;
+        try {
+            actualizado = usuarioService.actualizarParcialmente(id, cambios, versionDeIfMatch(ifMatch));
+        } catch (VersionNoCoincideException e) {
+            return conflictoDeVersion(id, HttpStatus.PRECONDITION_FAILED, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            ApiErrorModel error = new ApiErrorModel(
+                "Error de validacion",
+                e.getMessage(), 400,
+                "/api/v1/usuarios/" + id,
+                LocalDateTime.now()
+            );
+            return ResponseEntity.badRequest()
+                .contentType(MediaTypes.HAL_JSON)
+                .body(assembler.wrapError(error));
+        }
+        if (!actualizado) {
+            ApiErrorModel error = new ApiErrorModel(
+                "Usuario no encontrado",
+                "No existe el usuario con ID " + id, 404,
+                "/api/v1/usuarios/" + id,
+                LocalDateTime.now()
+            );
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .contentType(MediaTypes.HAL_JSON)
+                .body(assembler.wrapError(error));
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    // ETag fuerte: la versión cambia con cada escritura del usuario
+    private static String etag(Usuario usuario) {
+        return "\"" + usuario.getVersion() + "\"";
+    }
+
+    /**
+     * Versión pedida en If-Match: null si no viene o es "*"; -1 si no es un ETag emitido por
+     * esta API (nunca coincide, así que termina en 412).
+     */
+    private static Long versionDeIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String valor = ifMatch.trim();
+        if (valor.length() > 2 && valor.startsWith("\"") && valor.endsWith("\"")) {
+            try {
+                return Long.parseLong(valor.substring(1, valor.length() - 1));
+            } catch (NumberFormatException e) {
+                return -1L;
+            }
+        }
+        return -1L;
+    }
+
+    private ResponseEntity<EntityModel<?>> conflictoDeVersion(Long id, HttpStatus status, String detalle) {
+        ApiErrorModel error = new ApiErrorModel(
+            status == HttpStatus.PRECONDITION_FAILED ? "Version desactualizada" : "Conflicto de version",
+            detalle + "; vuelva a leer el usuario", status.value(),
+            "/api/v1/usuarios/" + id,
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(status)
+            .contentType(MediaTypes.HAL_JSON)
+            .body(assembler.wrapError(error));
+    }
+
     // Borrar usuario por ID
     @DeleteMapping(value = "/{id}", produces = {MediaTypes.HAL_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
     @Operation(summary = "Eliminar usuario", description = "Borra el usuario indicado por ID")
@@ -205,7 +593,7 @@ public class UsuarioController {
         }
         Map<String, String> mensaje = Map.of("mensaje", "Usuario eliminado correctamente");
         EntityModel<Map<String, String>> respuesta = EntityModel.of(mensaje,
-            linkTo(methodOn(UsuarioController.class).obtenerTodosUsuarios()).withRel("usuarios")
+            linkTo(UsuarioController.class).withRel("usuarios")
         );
         return ResponseEntity.ok()
             .contentType(MediaTypes.HAL_JSON)
@@ -214,12 +602,43 @@ public class UsuarioController {
 
     //Obtener las comunas y regiones
     @GetMapping("/regiones")
-    public String getRegiones() {
-        return usuarioService.obtenerRegiones();
+    public ResponseEntity<?> getRegiones() {
+        try {
+            return ResponseEntity.ok(ubicacionesService.obtenerRegiones());
+        } catch (UbicacionesNoDisponiblesException e) {
+            return ubicacionesNoDisponibles("/api/v1/usuarios/regiones");
+        }
     }
 
     @GetMapping("/regiones/{codigo}/comunas")
-    public String getComunas(@PathVariable String codigo) {
-        return usuarioService.obtenerComunas(codigo);
+    public ResponseEntity<?> getComunas(@PathVariable String codigo) {
+        try {
+            return ResponseEntity.ok(ubicacionesService.obtenerComunas(codigo));
+        } catch (IllegalArgumentException e) {
+            ApiErrorModel error = new ApiErrorModel(
+                "Error de validacion",
+                e.getMessage(), 400,
+                "/api/v1/usuarios/regiones/" + codigo + "/comunas",
+                LocalDateTime.now()
+            );
+            return ResponseEntity.badRequest()
+                .contentType(MediaTypes.HAL_JSON)
+                .body(assembler.wrapError(error));
+        } catch (UbicacionesNoDisponiblesException e) {
+            return ubicacionesNoDisponibles("/api/v1/usuarios/regiones/" + codigo + "/comunas");
+        }
+    }
+
+    private ResponseEntity<?> ubicacionesNoDisponibles(String ruta) {
+        ApiErrorModel error = new ApiErrorModel(
+            "Servicio no disponible",
+            "El servicio de ubicaciones no está disponible, intente más tarde", 503,
+            ruta,
+            LocalDateTime.now()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "5")
+            .contentType(MediaTypes.HAL_JSON)
+            .body(assembler.wrapError(error));
     }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.petsocity.petsocity.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Proyección del login (UsuarioRepository.findCredencialesByEmail): sólo las columnas
+ * necesarias para verificar la contraseña y responder, sin cargar una entidad administrada.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CredencialesUsuario {
+
+    private Long id;
+    private String nombre;
+    private String email;
+    private String contrasenia;
+
+    public static CredencialesUsuario de(Usuario usuario) {
+        return new CredencialesUsuario(usuario.getId(), usuario.getNombre(), usuario.getEmail(), usuario.getContrasenia());
+    }
+}
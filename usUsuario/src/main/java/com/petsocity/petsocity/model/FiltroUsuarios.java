@@ -0,0 +1,19 @@
+package com.petsocity.petsocity.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filtros de la búsqueda de usuarios. Los filtros nulos no se aplican; {@code nombre}
+ * es un prefijo del primer nombre.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FiltroUsuarios {
+
+    private String region;
+    private String comuna;
+    private String nombre;
+}
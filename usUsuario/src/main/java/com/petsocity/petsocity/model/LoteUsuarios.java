@@ -0,0 +1,21 @@
+package com.petsocity.petsocity.model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Respuesta de la lectura por lote: usuarios indexados por la clave solicitada
+ * (id o correo, en el orden pedido) y las claves que no existen.
+ */
+@Data
+@NoArgsConstructor
+public class LoteUsuarios {
+
+    private Map<String, Usuario> usuarios = new LinkedHashMap<>();
+    private List<String> noEncontrados = new ArrayList<>();
+}
@@ -0,0 +1,20 @@
+package com.petsocity.petsocity.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Página de usuarios obtenida mediante paginación por cursor (keyset sobre id).
+ * Si {@code siguienteCursor} es nulo no quedan más usuarios por recorrer.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaginaUsuarios {
+
+    private List<Usuario> usuarios;
+    private Long siguienteCursor;
+}
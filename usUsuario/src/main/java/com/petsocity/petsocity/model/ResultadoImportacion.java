@@ -0,0 +1,49 @@
+package com.petsocity.petsocity.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resumen de una importación masiva: filas leídas, usuarios creados, filas rechazadas
+ * (las demás se importan igualmente) y el detalle de las primeras {@link #MAXIMO_ERRORES}.
+ */
+@Data
+@NoArgsConstructor
+public class ResultadoImportacion {
+
+    public static final int MAXIMO_ERRORES = 100;
+
+    private int procesados;
+    private int creados;
+    private int rechazados;
+    private List<ErrorImportacion> errores = new ArrayList<>();
+
+    /**
+     * Cuenta la fila como rechazada; el detalle se guarda sólo para las primeras
+     * {@link #MAXIMO_ERRORES}, así la respuesta no crece con el tamaño de la importación.
+     */
+    public void agregarError(int fila, String email, String mensaje) {
+        rechazados++;
+        if (errores.size() < MAXIMO_ERRORES) {
+            errores.add(new ErrorImportacion(fila, email, mensaje));
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    public static class ErrorImportacion {
+
+        private int fila;
+        private String email;
+        private String mensaje;
+
+        public ErrorImportacion(int fila, String email, String mensaje) {
+            this.fila = fila;
+            this.email = email;
+            this.mensaje = mensaje;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.petsocity.petsocity.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Identidad del usuario que inició sesión (sin la contraseña).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumenUsuario {
+
+    private Long id;
+    private String nombre;
+    private String email;
+}
@@ -0,0 +1,23 @@
+package com.petsocity.petsocity.model;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Datos de un token de sesión ya verificado (ver TokenSesionService): quién es el usuario,
+ * cuándo inició sesión y hasta cuándo vale el token.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SesionUsuario {
+
+    private Long id;
+    private String nombre;
+    private String email;
+    private Instant inicio;
+    private Instant expira;
+}
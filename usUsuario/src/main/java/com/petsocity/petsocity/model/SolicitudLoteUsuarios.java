@@ -0,0 +1,19 @@
+package com.petsocity.petsocity.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cuerpo de POST /api/v1/usuarios/lote: ids y/o correos a buscar.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SolicitudLoteUsuarios {
+
+    private List<Long> ids;
+    private List<String> emails;
+}
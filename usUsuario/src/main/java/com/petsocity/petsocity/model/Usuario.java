@@ -2,8 +2,12 @@ package com.petsocity.petsocity.model;
 
 import java.time.LocalDateTime;
 
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
 import jakarta.persistence.Column;
@@ -11,11 +15,11 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
-import jakarta.validation.constraints.Email;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -23,54 +27,79 @@ import lombok.NoArgsConstructor;
 
 @JsonPropertyOrder({"id", "nombre", "apellido", "email", "contrasenia", "telefono", "direccion", "region" , "comuna", "fecha_creacion"})  
 @Entity
-@Table(name = "usuario")
+// El esquema lo crean las migraciones de Flyway (db/migration); estos índices sólo lo documentan.
+// Índices de la búsqueda (UsuarioRepositoryCustom.buscar): cada filtro termina en id para
+// que la paginación por cursor recorra el índice sin ordenar
+@Table(name = "usuario", indexes = {
+    @Index(name = "idx_usuario_region_comuna_id", columnList = "region, comuna, id"),
+    @Index(name = "idx_usuario_comuna_id", columnList = "comuna, id"),
+    @Index(name = "idx_usuario_nombre_id", columnList = "nombre, id"),
+    @Index(name = "idx_usuario_fecha_creacion", columnList = "fecha_creacion")
+})
+// El UPDATE de actualizarUsuario incluye sólo las columnas modificadas
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Usuario {
+
+    // Largo máximo de las columnas; UsuarioValidator rechaza valores más largos
+    public static final int LARGO_NOMBRE = 100;
+    public static final int LARGO_EMAIL = 255;
+    public static final int LARGO_CONTRASENIA = 255;
+    public static final int LARGO_TELEFONO = 20;
+    public static final int LARGO_DIRECCION = 255;
+    public static final int LARGO_REGION = 100;
+    public static final int LARGO_COMUNA = 100;
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @NotBlank(message = "Campo obligatorio")
-    @Column(name = "nombre" ,nullable = false)
+    @Column(name = "nombre", nullable = false, length = LARGO_NOMBRE)
     private String nombre;
 
     @NotBlank(message = "Campo obligatorio")
-    @Column(name = "apellido", nullable = false)
+    @Column(name = "apellido", nullable = false, length = LARGO_NOMBRE)
     private String apellido;
     
-    @Email(message = "El correo no tiene un formato valido")
-    @Pattern(
-        regexp = "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,6}$",
-        message = "Debe tener el formato nombre@duoc.cl")
+    // El formato del correo lo valida UsuarioValidator (una sola expresión para todo el servicio)
     @NotBlank(message = "Campo obligatorio")
-    @Column(name = "email", nullable = false, unique = true)
+    @Column(name = "email", nullable = false, unique = true, length = LARGO_EMAIL)
     private String email;
 
+    // Se recibe en altas y actualizaciones, pero nunca se devuelve (se guarda como hash bcrypt)
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @NotBlank(message = "Campo obligatorio")
     @Size(min = 6, max = 255, message = "La contraseña debe tener al menos 6 caracteres")
-    @Column(name = "contrasenia", nullable = false)
+    @Column(name = "contrasenia", nullable = false, length = LARGO_CONTRASENIA)
     private String contrasenia;
 
-    @Column(name = "telefono", nullable = false, columnDefinition = "TEXT")
+    @Column(name = "telefono", nullable = false, length = LARGO_TELEFONO)
     private String telefono;
 
     @NotBlank(message = "Campo obligatorio")
-    @Column(name = "direccion", nullable = false, columnDefinition = "TEXT")
+    @Column(name = "direccion", nullable = false, length = LARGO_DIRECCION)
     private String direccion;
 
     @NotBlank(message = "Campo obligatorio")
-    @Column(name = "region", nullable = false, columnDefinition = "TEXT")
+    @Column(name = "region", nullable = false, length = LARGO_REGION)
     private String region;
 
     @NotBlank(message = "Campo obligatorio")
-    @Column(name = "comuna", nullable = false, columnDefinition = "TEXT")
+    @Column(name = "comuna", nullable = false, length = LARGO_COMUNA)
     private String comuna;
 
     @Column(name = "fecha_creacion", updatable = false)
     @CreationTimestamp
     private LocalDateTime fechaCreacion;
 
+    // Control de concurrencia optimista. No va en el cuerpo: se expone como ETag
+    @Version
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
 }
@@ -0,0 +1,69 @@
+package com.petsocity.petsocity.observabilidad;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Cuenta las sentencias SQL que Hibernate prepara en el hilo actual mientras hay una
+ * medición abierta (una solicitud HTTP, ver {@link ContadorSentenciasSqlFilter}).
+ * Se registra en Hibernate como {@link StatementInspector}; las sentencias que se
+ * ejecutan fuera de Hibernate (el batch JDBC de la importación) no se cuentan.
+ */
+public class ContadorSentenciasSql implements StatementInspector {
+
+    /** Máximo de sentencias que se guardan para el log; el conteo sigue sin límite. */
+    static final int MAXIMO_GUARDADAS = 50;
+
+    private static final ThreadLocal<Medicion> ACTUAL = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        Medicion medicion = ACTUAL.get();
+        if (medicion != null) {
+            medicion.registrar(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Abre una medición en el hilo actual, reemplazando la anterior si existía.
+     */
+    public static Medicion iniciar() {
+        Medicion medicion = new Medicion();
+        ACTUAL.set(medicion);
+        return medicion;
+    }
+
+    /**
+     * Cierra la medición del hilo actual y la devuelve (null si no había una abierta).
+     */
+    public static Medicion finalizar() {
+        Medicion medicion = ACTUAL.get();
+        ACTUAL.remove();
+        return medicion;
+    }
+
+    public static final class Medicion {
+
+        private int cantidad;
+        private final List<String> sentencias = new ArrayList<>();
+
+        void registrar(String sql) {
+            cantidad++;
+            if (sentencias.size() < MAXIMO_GUARDADAS) {
+                sentencias.add(sql);
+            }
+        }
+
+        public int getCantidad() {
+            return cantidad;
+        }
+
+        public List<String> getSentencias() {
+            return Collections.unmodifiableList(sentencias);
+        }
+    }
+}
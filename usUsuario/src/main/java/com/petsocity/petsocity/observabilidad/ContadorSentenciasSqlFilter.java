@@ -0,0 +1,58 @@
+package com.petsocity.petsocity.observabilidad;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Mide cuántas sentencias SQL emite cada solicitud HTTP. Si superan
+ * {@code sql.sentencias.umbral} se registra un warning con las sentencias emitidas.
+ * El conteo queda en el atributo {@link #ATRIBUTO} de la solicitud (lo usan las pruebas)
+ * y en la métrica {@code http.server.sql.sentencias}.
+ */
+@Component
+public class ContadorSentenciasSqlFilter extends OncePerRequestFilter {
+
+    public static final String ATRIBUTO = ContadorSentenciasSqlFilter.class.getName() + ".cantidad";
+
+    private static final Logger log = LoggerFactory.getLogger(ContadorSentenciasSqlFilter.class);
+
+    private final int umbral;
+    private final DistributionSummary sentenciasPorSolicitud;
+
+    public ContadorSentenciasSqlFilter(@Value("${sql.sentencias.umbral:10}") int umbral, MeterRegistry registry) {
+        this.umbral = umbral;
+        this.sentenciasPorSolicitud = DistributionSummary.builder("http.server.sql.sentencias")
+            .description("Sentencias SQL emitidas por solicitud HTTP")
+            .register(registry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ContadorSentenciasSql.iniciar();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ContadorSentenciasSql.Medicion medicion = ContadorSentenciasSql.finalizar();
+            int cantidad = medicion.getCantidad();
+            request.setAttribute(ATRIBUTO, cantidad);
+            sentenciasPorSolicitud.record(cantidad);
+            if (cantidad > umbral) {
+                log.warn("{} {} emitio {} sentencias SQL (umbral {}): {}", request.getMethod(), request.getRequestURI(),
+                    cantidad, umbral, medicion.getSentencias());
+            }
+        }
+    }
+}
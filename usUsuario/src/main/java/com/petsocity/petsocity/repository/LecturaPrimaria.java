@@ -0,0 +1,32 @@
+package com.petsocity.petsocity.repository;
+
+import java.util.function.Supplier;
+
+/**
+ * Fuerza que las lecturas del hilo actual vayan a la BD primaria aunque corran en una
+ * transacción de sólo lectura. Se usa para leer lo recién escrito (read-your-writes)
+ * mientras las réplicas pueden estar atrasadas; ver ReplicasDataSource.
+ */
+public final class LecturaPrimaria {
+
+    private static final ThreadLocal<Boolean> ACTIVA = new ThreadLocal<>();
+
+    private LecturaPrimaria() {
+    }
+
+    public static <T> T ejecutar(Supplier<T> lectura) {
+        if (activa()) {
+            return lectura.get();
+        }
+        ACTIVA.set(Boolean.TRUE);
+        try {
+            return lectura.get();
+        } finally {
+            ACTIVA.remove();
+        }
+    }
+
+    public static boolean activa() {
+        return ACTIVA.get() != null;
+    }
+}
@@ -0,0 +1,144 @@
+package com.petsocity.petsocity.repository;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * DataSource de las transacciones de sólo lectura (ver ReplicasConfig): reparte las
+ * conexiones entre las réplicas disponibles en round-robin.
+ * <ul>
+ *   <li>Un chequeo periódico ({@code Connection.isValid}) marca cada réplica como
+ *       disponible o no; una réplica que falla al entregar una conexión se marca como no
+ *       disponible de inmediato y se prueba la siguiente.</li>
+ *   <li>Sin réplicas disponibles, o dentro de {@link LecturaPrimaria}, se usa la primaria.</li>
+ * </ul>
+ */
+public class ReplicasDataSource extends AbstractDataSource implements MeterBinder, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicasDataSource.class);
+
+    private final DataSource primaria;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger siguiente = new AtomicInteger();
+    private final ScheduledExecutorService chequeos;
+
+    public ReplicasDataSource(DataSource primaria, Map<String, DataSource> replicas, Duration intervaloChequeo) {
+        this.primaria = primaria;
+        replicas.forEach((nombre, dataSource) -> this.replicas.add(new Replica(nombre, dataSource)));
+        if (intervaloChequeo.isZero()) {
+            this.chequeos = null;
+            return;
+        }
+        this.chequeos = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "replicas-chequeo");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        chequeos.scheduleWithFixedDelay(this::chequear, 0, intervaloChequeo.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (LecturaPrimaria.activa()) {
+            return primaria.getConnection();
+        }
+        int cantidad = replicas.size();
+        int inicio = Math.floorMod(siguiente.getAndIncrement(), Math.max(cantidad, 1));
+        for (int i = 0; i < cantidad; i++) {
+            Replica replica = replicas.get((inicio + i) % cantidad);
+            if (!replica.disponible) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                marcar(replica, false, e);
+            }
+        }
+        return primaria.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("Las credenciales se configuran en cada pool");
+    }
+
+    /**
+     * Revisa cada réplica y actualiza su disponibilidad.
+     */
+    public void chequear() {
+        for (Replica replica : replicas) {
+            try (Connection conexion = replica.dataSource.getConnection()) {
+                marcar(replica, conexion.isValid(2), null);
+            } catch (SQLException | RuntimeException e) {
+                marcar(replica, false, e);
+            }
+        }
+    }
+
+    public int disponibles() {
+        return (int) replicas.stream().filter(replica -> replica.disponible).count();
+    }
+
+    private void marcar(Replica replica, boolean disponible, Exception causa) {
+        if (replica.disponible == disponible) {
+            return;
+        }
+        replica.disponible = disponible;
+        if (disponible) {
+            log.info("Réplica '{}' disponible nuevamente", replica.nombre);
+        } else {
+            log.warn("Réplica '{}' no disponible, sus lecturas van a otra réplica o a la primaria: {}",
+                replica.nombre, causa == null ? "conexión inválida" : causa.toString());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("db.replicas.disponibles", this, ReplicasDataSource::disponibles)
+            .description("Réplicas de lectura que reciben consultas")
+            .register(registry);
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (chequeos != null) {
+            chequeos.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable cerrable) {
+                cerrable.close();
+            }
+        }
+    }
+
+    private static final class Replica {
+
+        private final String nombre;
+        private final DataSource dataSource;
+        private volatile boolean disponible = true;
+
+        private Replica(String nombre, DataSource dataSource) {
+            this.nombre = nombre;
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -1,13 +1,50 @@
 package com.petsocity.petsocity.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.petsocity.petsocity.model.CredencialesUsuario;
 import com.petsocity.petsocity.model.Usuario;
 
-public interface UsuarioRepository extends JpaRepository<Usuario,Long>{
+
+public interface UsuarioRepository extends JpaRepository<Usuario,Long>, UsuarioRepositoryCustom {
     
     boolean existsByEmail(String email);
     Optional<Usuario> findByEmail(String email);
+    List<Usuario> findByEmailIn(Collection<String> emails);
+
+    // Login: lee sólo id, nombre, correo y hash; el resultado no es una entidad administrada
+    @Query("select new com.petsocity.petsocity.model.CredencialesUsuario(u.id, u.nombre, u.email, u.contrasenia)"
+        + " from Usuario u where u.email = :email")
+    Optional<CredencialesUsuario> findCredencialesByEmail(@Param("email") String email);
+
+    // Las lecturas corren en transacciones de sólo lectura (SimpleJpaRepository); las
+    // escrituras @Modifying declaran su propia transacción
+
+    // Rehash al iniciar sesión: sólo reemplaza si nadie cambió la contraseña entretanto
+    @Transactional
+    @Modifying
+    @Query("update Usuario u set u.contrasenia = :nueva where u.id = :id and u.contrasenia = :anterior")
+    int actualizarContrasenia(@Param("id") Long id, @Param("anterior") String anterior, @Param("nueva") String nueva);
+
+    // Borrado en una sola sentencia, sin cargar la entidad (deleteById la lee dos veces)
+    @Transactional
+    @Modifying
+    @Query("delete from Usuario u where u.id = :id")
+    int eliminarPorId(@Param("id") Long id);
+
+    // Chequeo de duplicados por lote: una sola consulta por bloque de la importación
+    @Query("select u.email from Usuario u where u.email in :emails")
+    List<String> findEmailsRegistrados(@Param("emails") Collection<String> emails);
+
+    // Paginación por cursor: usa el índice de la clave primaria sin OFFSET
+    List<Usuario> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
@@ -0,0 +1,33 @@
+package com.petsocity.petsocity.repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.petsocity.petsocity.model.FiltroUsuarios;
+import com.petsocity.petsocity.model.Usuario;
+
+public interface UsuarioRepositoryCustom {
+
+    /**
+     * Actualiza sólo los campos no nulos de {@code cambios} con un único UPDATE, sin leer
+     * la fila antes, e incrementa la versión. Si {@code versionEsperada} no es null, sólo
+     * actualiza cuando la versión actual coincide.
+     *
+     * @return filas afectadas (0 si el id no existe o la versión no coincide)
+     */
+    int actualizarCampos(Long id, Usuario cambios, Long versionEsperada);
+
+    /**
+     * Usuarios que cumplen los filtros no nulos, con id mayor que {@code after} y ordenados
+     * por id (paginación por cursor). Cada combinación de filtros usa uno de los índices
+     * declarados en {@link Usuario}.
+     */
+    List<Usuario> buscar(FiltroUsuarios filtro, long after, int limite);
+
+    /**
+     * Recorrido completo ordenado por id para la exportación, sin snapshots de
+     * dirty-checking y leído con {@code usuarios.exportacion.fetch-size}. Debe consumirse
+     * dentro de una transacción y cerrarse al terminar.
+     */
+    Stream<Usuario> recorrerPorId();
+}
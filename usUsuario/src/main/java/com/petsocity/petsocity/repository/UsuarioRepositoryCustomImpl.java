@@ -0,0 +1,119 @@
+package com.petsocity.petsocity.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.petsocity.petsocity.model.FiltroUsuarios;
+import com.petsocity.petsocity.model.Usuario;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+class UsuarioRepositoryCustomImpl implements UsuarioRepositoryCustom {
+
+    private static final char ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Sólo para la exportación. En MySQL, Integer.MIN_VALUE hace que Connector/J entregue las
+    // filas a medida que llegan (streaming); el resto de las consultas no cambia
+    @Value("${usuarios.exportacion.fetch-size:500}")
+    private int fetchSizeExportacion;
+
+    @Override
+    @Transactional
+    public int actualizarCampos(Long id, Usuario cambios, Long versionEsperada) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Usuario> update = cb.createCriteriaUpdate(Usuario.class);
+        Root<Usuario> usuario = update.from(Usuario.class);
+
+        boolean hayCambios = false;
+        hayCambios |= asignar(update, usuario, "nombre", cambios.getNombre());
+        hayCambios |= asignar(update, usuario, "apellido", cambios.getApellido());
+        hayCambios |= asignar(update, usuario, "email", cambios.getEmail());
+        hayCambios |= asignar(update, usuario, "contrasenia", cambios.getContrasenia());
+        hayCambios |= asignar(update, usuario, "telefono", cambios.getTelefono());
+        hayCambios |= asignar(update, usuario, "direccion", cambios.getDireccion());
+        hayCambios |= asignar(update, usuario, "region", cambios.getRegion());
+        hayCambios |= asignar(update, usuario, "comuna", cambios.getComuna());
+        if (!hayCambios) {
+            throw new IllegalStateException("No se indicaron campos para actualizar");
+        }
+
+        Path<Long> version = usuario.get("version");
+        update.set(version, cb.sum(version, 1L));
+        if (versionEsperada == null) {
+            update.where(cb.equal(usuario.get("id"), id));
+        } else {
+            update.where(cb.equal(usuario.get("id"), id), cb.equal(version, versionEsperada));
+        }
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Usuario> buscar(FiltroUsuarios filtro, long after, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Usuario> consulta = cb.createQuery(Usuario.class);
+        Root<Usuario> usuario = consulta.from(Usuario.class);
+
+        List<Predicate> condiciones = new ArrayList<>(4);
+        condiciones.add(cb.greaterThan(usuario.get("id"), after));
+        if (filtro.getRegion() != null) {
+            condiciones.add(cb.equal(usuario.get("region"), filtro.getRegion()));
+        }
+        if (filtro.getComuna() != null) {
+            condiciones.add(cb.equal(usuario.get("comuna"), filtro.getComuna()));
+        }
+        if (filtro.getNombre() != null) {
+            // Prefijo sin funciones sobre la columna, para que use idx_usuario_nombre_id
+            condiciones.add(cb.like(usuario.get("nombre"), escaparLike(filtro.getNombre()) + "%", ESCAPE));
+        }
+        consulta.select(usuario)
+            .where(condiciones.toArray(new Predicate[0]))
+            .orderBy(cb.asc(usuario.get("id")));
+        return entityManager.createQuery(consulta)
+            .setMaxResults(limite)
+            .getResultList();
+    }
+
+    @Override
+    public Stream<Usuario> recorrerPorId() {
+        return entityManager.createQuery("select u from Usuario u order by u.id", Usuario.class)
+            .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSizeExportacion)
+            .setHint(HibernateHints.HINT_READ_ONLY, true)
+            .getResultStream();
+    }
+
+    private static String escaparLike(String valor) {
+        StringBuilder escapado = new StringBuilder(valor.length() + 4);
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == ESCAPE || c == '%' || c == '_') {
+                escapado.append(ESCAPE);
+            }
+            escapado.append(c);
+        }
+        return escapado.toString();
+    }
+
+    private static boolean asignar(CriteriaUpdate<Usuario> update, Root<Usuario> usuario, String campo, String valor) {
+        if (valor == null) {
+            return false;
+        }
+        update.set(usuario.<String>get(campo), valor);
+        return true;
+    }
+}
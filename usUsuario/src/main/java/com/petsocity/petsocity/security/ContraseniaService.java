@@ -0,0 +1,276 @@
+package com.petsocity.petsocity.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * Hash y verificación de contraseñas con bcrypt.
+ *
+ * <ul>
+ *   <li>El costo de bcrypt es configurable ({@code usuarios.password.bcrypt-costo}).</li>
+ *   <li>Las verificaciones corren en un pool acotado de hilos con cola acotada: bajo una
+ *       ráfaga de logins el exceso se rechaza con {@link ServicioSaturadoException} en vez
+ *       de ocupar todos los hilos de Tomcat con trabajo de CPU.</li>
+ *   <li>Las filas antiguas con la contraseña en texto plano se comparan en tiempo constante
+ *       y el servicio las vuelve a guardar con hash al primer login exitoso.</li>
+ *   <li>Un login correcto deja por un tiempo corto un HMAC de la contraseña (con una clave
+ *       aleatoria del proceso) asociado al hash almacenado, de modo que los logins repetidos
+ *       no pagan un bcrypt completo. Al cambiar la contraseña cambia el hash y la entrada
+ *       deja de coincidir.</li>
+ * </ul>
+ */
+@Component
+public class ContraseniaService implements DisposableBean, MeterBinder {
+
+    private static final String HMAC = "HmacSHA256";
+
+    /** bcrypt sólo admite hasta 72 bytes; BCryptPasswordEncoder rechaza contraseñas más largas. */
+    public static final int MAXIMO_BYTES = 72;
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor verificadores;
+    // Hilos del pool que pueden ocupar a la vez los lotes (todas las importaciones juntas)
+    private final Semaphore cuposLote;
+    private final Duration espera;
+    private final Cache<String, byte[]> verificadas;
+    private final SecretKeySpec claveHmac;
+    private final String hashFicticio;
+    private final LongAdder rechazos = new LongAdder();
+
+    public ContraseniaService(
+            @Value("${usuarios.password.bcrypt-costo:10}") int costo,
+            @Value("${usuarios.password.verificadores:0}") int hilos,
+            @Value("${usuarios.password.cola:64}") int cola,
+            @Value("${usuarios.password.espera:2s}") Duration espera,
+            @Value("${usuarios.password.cache-ttl:60s}") Duration ttlCache,
+            @Value("${usuarios.password.cache-maximo:10000}") long maximoCache) {
+        this.encoder = new BCryptPasswordEncoder(costo);
+        int configurado = hilos > 0 ? hilos : Runtime.getRuntime().availableProcessors();
+        // Los lotes usan a lo sumo la mitad; el pool tiene siempre al menos un hilo más para
+        // verificar y hashear (con un solo procesador, 2 hilos y 1 cupo de lote)
+        int cupos = Math.max(1, configurado / 2);
+        int tamanio = Math.max(configurado, cupos + 1);
+        this.cuposLote = new Semaphore(cupos);
+        AtomicInteger contador = new AtomicInteger();
+        this.verificadores = new ThreadPoolExecutor(tamanio, tamanio, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(cola), tarea -> {
+                Thread hilo = new Thread(tarea, "verificador-contrasenia-" + contador.incrementAndGet());
+                hilo.setDaemon(true);
+                return hilo;
+            }, new ThreadPoolExecutor.AbortPolicy());
+        this.espera = espera;
+        this.verificadas = maximoCache > 0
+            ? Caffeine.newBuilder().maximumSize(maximoCache).expireAfterWrite(ttlCache).recordStats().build()
+            : null;
+        byte[] clave = new byte[32];
+        new SecureRandom().nextBytes(clave);
+        this.claveHmac = new SecretKeySpec(clave, HMAC);
+        this.hashFicticio = encoder.encode(UUID.randomUUID().toString());
+    }
+
+    public String hashear(String contrasenia) {
+        return encoder.encode(contrasenia);
+    }
+
+    /**
+     * Hash de un lote (importación) en el pool de verificación. Los cupos son compartidos por
+     * todos los lotes en curso, así que varias importaciones a la vez tampoco ocupan más de la
+     * mitad de los hilos ni llenan la cola, y siempre queda un hilo para los logins. Con la cola
+     * llena se espera a que haya lugar en vez de rechazar: la importación puede esperar, un login no.
+     *
+     * @return los hashes, en el mismo orden
+     */
+    public List<String> hashearLote(List<String> contrasenias) {
+        List<Future<String>> hashes = new ArrayList<>(contrasenias.size());
+        try {
+            for (String contrasenia : contrasenias) {
+                cuposLote.acquire();
+                // done() corre una sola vez, al terminar o al cancelarse aunque no haya empezado
+                FutureTask<String> hash = new FutureTask<>(() -> encoder.encode(contrasenia)) {
+                    @Override
+                    protected void done() {
+                        cuposLote.release();
+                    }
+                };
+                try {
+                    enviarEsperando(hash);
+                } catch (RuntimeException | InterruptedException e) {
+                    cuposLote.release();
+                    throw e;
+                }
+                hashes.add(hash);
+            }
+            List<String> resultado = new ArrayList<>(hashes.size());
+            for (Future<String> hash : hashes) {
+                resultado.add(hash.get());
+            }
+            return resultado;
+        } catch (InterruptedException e) {
+            hashes.forEach(hash -> hash.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new ServicioSaturadoException("Hash interrumpido", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error al calcular el hash de la contraseña", e.getCause());
+        }
+    }
+
+    private void enviarEsperando(Runnable tarea) throws InterruptedException {
+        while (true) {
+            try {
+                verificadores.execute(tarea);
+                return;
+            } catch (RejectedExecutionException e) {
+                if (verificadores.isShutdown()) {
+                    throw new ServicioSaturadoException("El pool de contraseñas se esta deteniendo", e);
+                }
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    public static boolean admiteHash(String contrasenia) {
+        return contrasenia.getBytes(StandardCharsets.UTF_8).length <= MAXIMO_BYTES;
+    }
+
+    public boolean esHash(String almacenada) {
+        return almacenada != null
+            && (almacenada.startsWith("$2a$") || almacenada.startsWith("$2b$") || almacenada.startsWith("$2y$"));
+    }
+
+    /**
+     * @return true si la contraseña almacenada está en texto plano o con un costo menor al configurado
+     */
+    public boolean necesitaRehash(String almacenada) {
+        return !esHash(almacenada) || encoder.upgradeEncoding(almacenada);
+    }
+
+    public boolean verificar(String contrasenia, String almacenada) {
+        if (contrasenia == null || almacenada == null) {
+            return false;
+        }
+        if (!esHash(almacenada)) {
+            return MessageDigest.isEqual(
+                contrasenia.getBytes(StandardCharsets.UTF_8), almacenada.getBytes(StandardCharsets.UTF_8));
+        }
+        if (!admiteHash(contrasenia)) {
+            // Nunca pudo haberse guardado con bcrypt; igual se paga un bcrypt para no revelarlo
+            verificarFicticio("");
+            return false;
+        }
+        byte[] huella = verificadas != null ? huella(contrasenia) : null;
+        if (huella != null) {
+            byte[] verificada = verificadas.getIfPresent(almacenada);
+            if (verificada != null && MessageDigest.isEqual(verificada, huella)) {
+                return true;
+            }
+        }
+        boolean coincide = ejecutarBcrypt(contrasenia, almacenada);
+        if (coincide && huella != null) {
+            verificadas.put(almacenada, huella);
+        }
+        return coincide;
+    }
+
+    /**
+     * Verificación contra un hash ficticio para correos inexistentes, de modo que el
+     * tiempo de respuesta no revele si el correo está registrado.
+     */
+    public void verificarFicticio(String contrasenia) {
+        ejecutarBcrypt(contrasenia != null && admiteHash(contrasenia) ? contrasenia : "", hashFicticio);
+    }
+
+    public Cache<String, byte[]> getVerificadas() {
+        return verificadas;
+    }
+
+    public ThreadPoolExecutor getVerificadores() {
+        return verificadores;
+    }
+
+    private boolean ejecutarBcrypt(String contrasenia, String almacenada) {
+        Future<Boolean> resultado;
+        try {
+            resultado = verificadores.submit(() -> encoder.matches(contrasenia, almacenada));
+        } catch (RejectedExecutionException e) {
+            rechazos.increment();
+            throw new ServicioSaturadoException("Demasiados inicios de sesion simultaneos, intente nuevamente", e);
+        }
+        try {
+            return resultado.get(espera.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            resultado.cancel(true);
+            rechazos.increment();
+            throw new ServicioSaturadoException("La verificacion de la contraseña excedio el tiempo de espera", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServicioSaturadoException("Verificacion interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error al verificar la contraseña", e.getCause());
+        }
+    }
+
+    private byte[] huella(String contrasenia) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(claveHmac);
+            return mac.doFinal(contrasenia.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 no disponible", e);
+        }
+    }
+
+    /**
+     * Ocupación del pool de verificación, verificaciones rechazadas (503) y tasa de
+     * aciertos del cache de credenciales verificadas.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(verificadores, "verificador.contrasenia", Tags.empty()).bindTo(registry);
+        FunctionCounter.builder("usuarios.password.rechazos", rechazos, LongAdder::sum)
+            .description("Verificaciones rechazadas por pool lleno o tiempo de espera")
+            .register(registry);
+        if (verificadas != null) {
+            CaffeineCacheMetrics.monitor(registry, verificadas, "credencialesVerificadas");
+        }
+    }
+
+    @Override
+    public void destroy() {
+        verificadores.shutdownNow();
+    }
+}
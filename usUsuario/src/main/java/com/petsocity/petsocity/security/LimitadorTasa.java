@@ -0,0 +1,139 @@
+package com.petsocity.petsocity.security;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket por clave (IP, correo) en memoria, con candados por franja: cada clave cae
+ * en una de {@link #FRANJAS} franjas según su hash y sólo compite con las claves de la
+ * misma franja, no con todas.
+ * <ul>
+ *   <li>Cada balde admite {@code capacidad} solicitudes seguidas y recupera una cada
+ *       {@code intervalo}.</li>
+ *   <li>La memoria está acotada: cada franja guarda a lo sumo {@code maximoClaves / FRANJAS}
+ *       baldes en orden de uso y descarta el menos usado. Además se descartan los baldes
+ *       inactivos por más de {@code capacidad * intervalo}, que ya estarían llenos: olvidarlos
+ *       no cambia ninguna decisión.</li>
+ * </ul>
+ */
+public class LimitadorTasa {
+
+    static final int FRANJAS = 64;
+
+    private final long intervaloNanos;
+    // Balde lleno; también el tiempo de inactividad tras el cual se descarta
+    private final long creditoMaximo;
+    private final LongSupplier reloj;
+    private final Franja[] franjas = new Franja[FRANJAS];
+
+    public LimitadorTasa(int capacidad, Duration intervalo, int maximoClaves) {
+        this(capacidad, intervalo, maximoClaves, System::nanoTime);
+    }
+
+    LimitadorTasa(int capacidad, Duration intervalo, int maximoClaves, LongSupplier reloj) {
+        if (capacidad < 1 || intervalo.isNegative() || intervalo.isZero()) {
+            throw new IllegalArgumentException("La capacidad y el intervalo del limitador deben ser positivos");
+        }
+        this.intervaloNanos = intervalo.toNanos();
+        this.creditoMaximo = Math.multiplyExact(intervaloNanos, (long) capacidad);
+        this.reloj = reloj;
+        int maximoPorFranja = Math.max(1, maximoClaves / FRANJAS);
+        for (int i = 0; i < FRANJAS; i++) {
+            franjas[i] = new Franja(maximoPorFranja);
+        }
+    }
+
+    /**
+     * Consume una solicitud de la clave.
+     *
+     * @return {@link Duration#ZERO} si se admite, o cuánto falta para que se admita la siguiente
+     */
+    public Duration intentar(String clave) {
+        long ahora = reloj.getAsLong();
+        Franja franja = franja(clave);
+        synchronized (franja) {
+            franja.descartarInactivos(ahora);
+            Balde balde = franja.baldes.get(clave);
+            if (balde == null) {
+                balde = new Balde(creditoMaximo, ahora);
+                franja.baldes.put(clave, balde);
+            }
+            // El balde guarda el "crédito" en nanos: cada solicitud cuesta un intervalo
+            long credito = Math.min(creditoMaximo, balde.credito + (ahora - balde.ultimoUso));
+            balde.ultimoUso = ahora;
+            if (credito >= intervaloNanos) {
+                balde.credito = credito - intervaloNanos;
+                return Duration.ZERO;
+            }
+            balde.credito = credito;
+            return Duration.ofNanos(intervaloNanos - credito);
+        }
+    }
+
+    /**
+     * Olvida la clave (por ejemplo, tras un login correcto de ese correo).
+     */
+    public void reiniciar(String clave) {
+        Franja franja = franja(clave);
+        synchronized (franja) {
+            franja.baldes.remove(clave);
+        }
+    }
+
+    /**
+     * Cantidad de claves que ocupan memoria en este momento.
+     */
+    public int claves() {
+        int total = 0;
+        for (Franja franja : franjas) {
+            synchronized (franja) {
+                total += franja.baldes.size();
+            }
+        }
+        return total;
+    }
+
+    private Franja franja(String clave) {
+        int hash = clave.hashCode();
+        return franjas[(hash ^ (hash >>> 16)) & (FRANJAS - 1)];
+    }
+
+    private final class Franja {
+
+        private final LinkedHashMap<String, Balde> baldes;
+
+        private Franja(int maximo) {
+            this.baldes = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Balde> masAntiguo) {
+                    return size() > maximo;
+                }
+            };
+        }
+
+        // En orden de acceso el primero es el menos usado: se descarta mientras esté inactivo
+        private void descartarInactivos(long ahora) {
+            Iterator<Balde> iterador = baldes.values().iterator();
+            while (iterador.hasNext()) {
+                if (ahora - iterador.next().ultimoUso < creditoMaximo) {
+                    return;
+                }
+                iterador.remove();
+            }
+        }
+    }
+
+    private static final class Balde {
+
+        private long credito;
+        private long ultimoUso;
+
+        private Balde(long credito, long ultimoUso) {
+            this.credito = credito;
+            this.ultimoUso = ultimoUso;
+        }
+    }
+}
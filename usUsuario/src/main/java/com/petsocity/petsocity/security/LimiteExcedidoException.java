@@ -0,0 +1,28 @@
+package com.petsocity.petsocity.security;
+
+import java.time.Duration;
+
+/**
+ * La solicitud superó uno de los límites de LimitesSolicitudes. El controlador la traduce
+ * a 429 con {@code Retry-After}.
+ */
+public class LimiteExcedidoException extends RuntimeException {
+
+    private final Duration reintentarEn;
+
+    public LimiteExcedidoException(String message, Duration reintentarEn) {
+        super(message);
+        this.reintentarEn = reintentarEn;
+    }
+
+    public Duration getReintentarEn() {
+        return reintentarEn;
+    }
+
+    /**
+     * Segundos para la cabecera Retry-After (redondeado hacia arriba, al menos 1).
+     */
+    public long getSegundosReintento() {
+        return Math.max(1, (reintentarEn.toMillis() + 999) / 1000);
+    }
+}
@@ -0,0 +1,113 @@
+package com.petsocity.petsocity.security;
+
+import java.time.Duration;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Límites de tasa de {@code /login} y del registro ({@code POST /api/v1/usuarios}), revisados
+ * por el controlador antes de llamar a UsuarioService: una ráfaga de credential stuffing se
+ * rechaza con 429 sin consultar la BD ni verificar contraseñas.
+ * <ul>
+ *   <li>Login: un balde por IP y otro por correo (intentos contra una misma cuenta desde
+ *       muchas IPs). Un login correcto vacía el registro de ese correo.</li>
+ *   <li>Registro: un balde por IP.</li>
+ * </ul>
+ * Cada política se configura con {@code limites.<politica>.capacidad} (ráfaga) e
+ * {@code limites.<politica>.intervalo} (cada cuánto se recupera una solicitud).
+ */
+@Component
+public class LimitesSolicitudes {
+
+    private final boolean habilitado;
+    private final Politica loginIp;
+    private final Politica loginCorreo;
+    private final Politica registroIp;
+
+    public LimitesSolicitudes(
+            @Value("${limites.habilitado:true}") boolean habilitado,
+            @Value("${limites.maximo-claves:100000}") int maximoClaves,
+            @Value("${limites.login-ip.capacidad:20}") int loginIpCapacidad,
+            @Value("${limites.login-ip.intervalo:3s}") Duration loginIpIntervalo,
+            @Value("${limites.login-correo.capacidad:5}") int loginCorreoCapacidad,
+            @Value("${limites.login-correo.intervalo:1m}") Duration loginCorreoIntervalo,
+            @Value("${limites.registro-ip.capacidad:10}") int registroIpCapacidad,
+            @Value("${limites.registro-ip.intervalo:30s}") Duration registroIpIntervalo,
+            MeterRegistry registry) {
+        this.habilitado = habilitado;
+        this.loginIp = new Politica("login-ip",
+            new LimitadorTasa(loginIpCapacidad, loginIpIntervalo, maximoClaves), registry);
+        this.loginCorreo = new Politica("login-correo",
+            new LimitadorTasa(loginCorreoCapacidad, loginCorreoIntervalo, maximoClaves), registry);
+        this.registroIp = new Politica("registro-ip",
+            new LimitadorTasa(registroIpCapacidad, registroIpIntervalo, maximoClaves), registry);
+    }
+
+    /**
+     * @throws LimiteExcedidoException si la IP o el correo superaron su límite
+     */
+    public void verificarLogin(String ip, String email) {
+        if (!habilitado) {
+            return;
+        }
+        loginIp.verificar(ip, "Demasiados intentos de login desde esta dirección");
+        if (email != null && !email.isBlank()) {
+            loginCorreo.verificar(normalizar(email), "Demasiados intentos de login para este correo");
+        }
+    }
+
+    public void loginExitoso(String email) {
+        if (habilitado && email != null) {
+            loginCorreo.limitador.reiniciar(normalizar(email));
+        }
+    }
+
+    /**
+     * @throws LimiteExcedidoException si la IP superó su límite de registros
+     */
+    public void verificarRegistro(String ip) {
+        if (habilitado) {
+            registroIp.verificar(ip, "Demasiados registros desde esta dirección");
+        }
+    }
+
+    private static String normalizar(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Politica {
+
+        private final LimitadorTasa limitador;
+        private final Counter admitidas;
+        private final Counter rechazadas;
+
+        // Métricas: limites.solicitudes (admitidas y rechazadas) y limites.claves (claves en memoria)
+        private Politica(String nombre, LimitadorTasa limitador, MeterRegistry registry) {
+            this.limitador = limitador;
+            this.admitidas = Counter.builder("limites.solicitudes").tag("politica", nombre)
+                .tag("resultado", "admitida").register(registry);
+            this.rechazadas = Counter.builder("limites.solicitudes").tag("politica", nombre)
+                .tag("resultado", "rechazada").register(registry);
+            Gauge.builder("limites.claves", limitador, LimitadorTasa::claves)
+                .tag("politica", nombre)
+                .description("Claves (IP o correo) con un balde en memoria")
+                .register(registry);
+        }
+
+        private void verificar(String clave, String mensaje) {
+            Duration espera = limitador.intentar(clave == null ? "" : clave);
+            if (espera.isZero()) {
+                admitidas.increment();
+                return;
+            }
+            rechazadas.increment();
+            throw new LimiteExcedidoException(mensaje, espera);
+        }
+    }
+}
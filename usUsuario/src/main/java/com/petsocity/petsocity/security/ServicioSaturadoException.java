@@ -0,0 +1,16 @@
+package com.petsocity.petsocity.security;
+
+/**
+ * El pool de verificación de contraseñas está lleno o no respondió a tiempo.
+ * El controlador la traduce a 503 para que el cliente reintente más tarde.
+ */
+public class ServicioSaturadoException extends RuntimeException {
+
+    public ServicioSaturadoException(String message) {
+        super(message);
+    }
+
+    public ServicioSaturadoException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
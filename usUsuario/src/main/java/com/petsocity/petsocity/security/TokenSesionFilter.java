@@ -0,0 +1,94 @@
+package com.petsocity.petsocity.security;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.petsocity.petsocity.model.SesionUsuario;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Verifica el token {@code Authorization: Bearer} de cada solicitud, sin consultar la BD.
+ * Un token válido deja la {@link SesionUsuario} en el atributo {@link #ATRIBUTO}; uno
+ * inválido o expirado responde 401. Las solicitudes sin token pasan igual: los endpoints
+ * que exigen sesión revisan el atributo.
+ * <p>
+ * La renovación recibe tokens recién expirados, por eso ese endpoint verifica el token
+ * por su cuenta.
+ */
+@Component
+public class TokenSesionFilter extends OncePerRequestFilter {
+
+    public static final String ATRIBUTO = "com.petsocity.petsocity.security.TokenSesionFilter.sesion";
+    public static final String RUTA_RENOVAR = "/api/v1/usuarios/sesion/renovar";
+
+    private static final String BEARER = "Bearer ";
+
+    private final TokenSesionService tokens;
+    private final ObjectMapper json;
+    private final Counter validos;
+    private final Counter invalidos;
+
+    public TokenSesionFilter(TokenSesionService tokens, ObjectMapper json, MeterRegistry registry) {
+        this.tokens = tokens;
+        this.json = json;
+        this.validos = Counter.builder("sesion.tokens.verificados").tag("resultado", "valido")
+            .description("Tokens de sesión verificados en las solicitudes").register(registry);
+        this.invalidos = Counter.builder("sesion.tokens.verificados").tag("resultado", "invalido")
+            .description("Tokens de sesión verificados en las solicitudes").register(registry);
+    }
+
+    /**
+     * Token de la cabecera Authorization, o null si no viene uno Bearer.
+     */
+    public static String token(HttpServletRequest request) {
+        String cabecera = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (cabecera == null || !cabecera.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            return null;
+        }
+        return cabecera.substring(BEARER.length()).trim();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return RUTA_RENOVAR.equals(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String token = token(request);
+        if (token != null) {
+            try {
+                request.setAttribute(ATRIBUTO, tokens.verificar(token));
+                validos.increment();
+            } catch (TokenSesionInvalidoException e) {
+                invalidos.increment();
+                rechazar(response, e.getMessage());
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private void rechazar(HttpServletResponse response, String mensaje) throws IOException {
+        response.setStatus(HttpStatus.UNAUTHORIZED.value());
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        json.writeValue(response.getOutputStream(), Map.of("mensaje", mensaje));
+    }
+}
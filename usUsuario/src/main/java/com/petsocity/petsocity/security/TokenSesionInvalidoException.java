@@ -0,0 +1,16 @@
+package com.petsocity.petsocity.security;
+
+/**
+ * El token de sesión está mal formado, su firma no coincide con ninguna clave vigente o ya
+ * expiró. TokenSesionFilter y el controlador la traducen a 401.
+ */
+public class TokenSesionInvalidoException extends RuntimeException {
+
+    public TokenSesionInvalidoException(String message) {
+        super(message);
+    }
+
+    public TokenSesionInvalidoException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,163 @@
+package com.petsocity.petsocity.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.petsocity.petsocity.model.ResumenUsuario;
+import com.petsocity.petsocity.model.SesionUsuario;
+
+/**
+ * Emite y renueva los tokens de sesión de {@code /login} (la verificación está en
+ * {@link VerificadorTokenSesion}).
+ * <ul>
+ *   <li>{@code sesion.claves} es una lista {@code kid:clave-base64}; la primera firma y
+ *       todas verifican. Para rotar se agrega la nueva al principio y la anterior se quita
+ *       cuando ya no queden tokens firmados con ella ({@code sesion.duracion}).</li>
+ *   <li>Un token se renueva hasta {@code sesion.gracia-renovacion} después de expirar y
+ *       mientras no se cumpla {@code sesion.duracion-maxima} desde el login.</li>
+ *   <li>Sin claves configuradas se usa una clave aleatoria del proceso: sirve para
+ *       desarrollo, pero los tokens no valen en otras instancias ni tras reiniciar.</li>
+ * </ul>
+ */
+@Component
+public class TokenSesionService extends VerificadorTokenSesion {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenSesionService.class);
+    private static final Base64.Encoder BASE64 = Base64.getUrlEncoder().withoutPadding();
+
+    private final String kidActivo;
+    private final SecretKeySpec claveActiva;
+    private final ObjectMapper json;
+    private final Duration duracion;
+    private final Duration duracionMaxima;
+    private final Duration graciaRenovacion;
+
+    @Autowired
+    public TokenSesionService(ObjectMapper json,
+            @Value("${sesion.claves:}") List<String> claves,
+            @Value("${sesion.duracion:15m}") Duration duracion,
+            @Value("${sesion.duracion-maxima:12h}") Duration duracionMaxima,
+            @Value("${sesion.gracia-renovacion:5m}") Duration graciaRenovacion) {
+        this(json, leerClaves(claves), duracion, duracionMaxima, graciaRenovacion, Clock.systemUTC());
+    }
+
+    TokenSesionService(ObjectMapper json, Map<String, byte[]> claves, Duration duracion, Duration duracionMaxima,
+            Duration graciaRenovacion, Clock reloj) {
+        super(claves, json, reloj);
+        if (duracion.compareTo(duracionMaxima) > 0) {
+            throw new IllegalArgumentException("sesion.duracion no puede superar sesion.duracion-maxima");
+        }
+        Map.Entry<String, byte[]> activa = claves.entrySet().iterator().next();
+        this.kidActivo = activa.getKey();
+        this.claveActiva = new SecretKeySpec(activa.getValue(), HMAC);
+        this.json = json;
+        this.duracion = duracion;
+        this.duracionMaxima = duracionMaxima;
+        this.graciaRenovacion = graciaRenovacion;
+    }
+
+    private static Map<String, byte[]> leerClaves(List<String> claves) {
+        Map<String, byte[]> resultado = new LinkedHashMap<>();
+        for (String entrada : claves) {
+            if (entrada.isBlank()) {
+                continue;
+            }
+            int separador = entrada.indexOf(':');
+            if (separador <= 0) {
+                throw new IllegalArgumentException("sesion.claves debe tener la forma kid:clave-base64");
+            }
+            resultado.put(entrada.substring(0, separador).trim(),
+                Base64.getDecoder().decode(entrada.substring(separador + 1).trim()));
+        }
+        if (resultado.isEmpty()) {
+            log.warn("sesion.claves no está configurada: los tokens de sesión se firman con una clave aleatoria"
+                + " y no valen en otras instancias");
+            byte[] clave = new byte[32];
+            new SecureRandom().nextBytes(clave);
+            resultado.put("local", clave);
+        }
+        return resultado;
+    }
+
+    public Duration getDuracion() {
+        return duracion;
+    }
+
+    /**
+     * Token para un login recién verificado.
+     */
+    public String emitir(ResumenUsuario usuario) {
+        return emitir(usuario, reloj.instant());
+    }
+
+    /**
+     * Token nuevo para un token vigente o expirado hace menos de
+     * {@code sesion.gracia-renovacion}. Los datos del usuario se vuelven a leer con
+     * {@code usuarioActual} (null si ya no existe), así un cambio de nombre o correo se
+     * refleja y un usuario eliminado no renueva.
+     *
+     * @throws TokenSesionInvalidoException si el token no se puede renovar
+     */
+    public String renovar(String token, Function<Long, ResumenUsuario> usuarioActual) {
+        SesionUsuario sesion = verificarFirma(token);
+        Instant ahora = reloj.instant();
+        if (!ahora.isBefore(sesion.getExpira().plus(graciaRenovacion))) {
+            throw new TokenSesionInvalidoException("El token de sesión expiró; inicie sesión nuevamente");
+        }
+        if (!ahora.isBefore(sesion.getInicio().plus(duracionMaxima))) {
+            throw new TokenSesionInvalidoException("La sesión alcanzó su duración máxima; inicie sesión nuevamente");
+        }
+        ResumenUsuario usuario = usuarioActual.apply(sesion.getId());
+        if (usuario == null) {
+            throw new TokenSesionInvalidoException("El usuario de la sesión ya no existe");
+        }
+        return emitir(usuario, sesion.getInicio());
+    }
+
+    private String emitir(ResumenUsuario usuario, Instant inicio) {
+        Instant expira = reloj.instant().plus(duracion);
+        Instant limite = inicio.plus(duracionMaxima);
+        if (expira.isAfter(limite)) {
+            expira = limite;
+        }
+        ObjectNode cabecera = json.createObjectNode()
+            .put("alg", "HS256")
+            .put("typ", "JWT")
+            .put("kid", kidActivo);
+        ObjectNode datos = json.createObjectNode()
+            .put("sub", String.valueOf(usuario.getId()))
+            .put("nombre", usuario.getNombre())
+            .put("email", usuario.getEmail())
+            .put("auth_time", inicio.getEpochSecond())
+            .put("exp", expira.getEpochSecond());
+        String contenido = codificar(cabecera) + "." + codificar(datos);
+        return contenido + "." + BASE64.encodeToString(firmar(claveActiva, contenido));
+    }
+
+    private String codificar(ObjectNode nodo) {
+        try {
+            return BASE64.encodeToString(json.writeValueAsString(nodo).getBytes(StandardCharsets.UTF_8));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el token de sesión", e);
+        }
+    }
+}
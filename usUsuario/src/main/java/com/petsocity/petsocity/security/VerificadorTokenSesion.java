@@ -0,0 +1,118 @@
+package com.petsocity.petsocity.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.petsocity.petsocity.model.SesionUsuario;
+
+/**
+ * Verificación local de los tokens de sesión (JWT HS256) que emite {@code /login}. No usa
+ * Spring ni la BD: los otros servicios de Petsocity pueden usar esta clase con las mismas
+ * claves ({@code sesion.claves}) para saber quién llama sin consultar
+ * {@code GET /api/v1/usuarios/{id}}.
+ * <ul>
+ *   <li>Cada token lleva en su cabecera el {@code kid} de la clave que lo firmó; se acepta
+ *       si esa clave sigue configurada, lo que permite rotarlas sin cortar sesiones.</li>
+ *   <li>Datos: {@code sub} (id), {@code nombre}, {@code email}, {@code auth_time} (inicio
+ *       de la sesión) y {@code exp}, en segundos.</li>
+ * </ul>
+ */
+public class VerificadorTokenSesion {
+
+    static final String HMAC = "HmacSHA256";
+
+    private static final Base64.Decoder BASE64 = Base64.getUrlDecoder();
+
+    private final Map<String, SecretKeySpec> claves;
+    private final ObjectMapper json;
+    protected final Clock reloj;
+
+    /**
+     * @param claves clave HMAC por {@code kid}; cada una de al menos 32 bytes
+     */
+    public VerificadorTokenSesion(Map<String, byte[]> claves, ObjectMapper json, Clock reloj) {
+        if (claves.isEmpty()) {
+            throw new IllegalArgumentException("Se necesita al menos una clave de sesión");
+        }
+        this.claves = new LinkedHashMap<>();
+        claves.forEach((kid, clave) -> {
+            if (clave.length < 32) {
+                throw new IllegalArgumentException("La clave de sesión '" + kid + "' debe tener al menos 32 bytes");
+            }
+            this.claves.put(kid, new SecretKeySpec(clave, HMAC));
+        });
+        this.json = json;
+        this.reloj = reloj;
+    }
+
+    /**
+     * Verifica la firma y la expiración del token.
+     *
+     * @throws TokenSesionInvalidoException si el token no es válido o ya expiró
+     */
+    public SesionUsuario verificar(String token) {
+        SesionUsuario sesion = verificarFirma(token);
+        if (!reloj.instant().isBefore(sesion.getExpira())) {
+            throw new TokenSesionInvalidoException("El token de sesión expiró");
+        }
+        return sesion;
+    }
+
+    /**
+     * Verifica sólo la firma; la expiración la revisa quien llama (la renovación acepta
+     * tokens recién expirados).
+     */
+    protected SesionUsuario verificarFirma(String token) {
+        if (token == null) {
+            throw new TokenSesionInvalidoException("Falta el token de sesión");
+        }
+        int punto1 = token.indexOf('.');
+        int punto2 = token.indexOf('.', punto1 + 1);
+        if (punto1 < 0 || punto2 < 0 || token.indexOf('.', punto2 + 1) >= 0) {
+            throw new TokenSesionInvalidoException("Token de sesión mal formado");
+        }
+        try {
+            JsonNode cabecera = json.readTree(BASE64.decode(token.substring(0, punto1)));
+            SecretKeySpec clave = claves.get(cabecera.path("kid").asText());
+            if (clave == null || !"HS256".equals(cabecera.path("alg").asText())) {
+                throw new TokenSesionInvalidoException("Token de sesión firmado con una clave desconocida");
+            }
+            byte[] esperada = firmar(clave, token.substring(0, punto2));
+            if (!MessageDigest.isEqual(esperada, BASE64.decode(token.substring(punto2 + 1)))) {
+                throw new TokenSesionInvalidoException("Firma del token de sesión inválida");
+            }
+            JsonNode datos = json.readTree(BASE64.decode(token.substring(punto1 + 1, punto2)));
+            return new SesionUsuario(
+                Long.valueOf(datos.path("sub").asText()),
+                datos.path("nombre").asText(null),
+                datos.path("email").asText(null),
+                Instant.ofEpochSecond(datos.path("auth_time").asLong()),
+                Instant.ofEpochSecond(datos.path("exp").asLong()));
+        } catch (TokenSesionInvalidoException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new TokenSesionInvalidoException("Token de sesión mal formado", e);
+        }
+    }
+
+    static byte[] firmar(SecretKeySpec clave, String contenido) {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(clave);
+            return mac.doFinal(contenido.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 no disponible", e);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.petsocity.petsocity.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.petsocity.petsocity.model.ResultadoImportacion;
+import com.petsocity.petsocity.model.Usuario;
+import com.petsocity.petsocity.repository.UsuarioRepository;
+import com.petsocity.petsocity.security.ContraseniaService;
+import com.petsocity.petsocity.validation.UsuarioValidator;
+import com.petsocity.petsocity.validation.ValidacionUsuarioException;
+
+import io.micrometer.core.annotation.Timed;
+
+/**
+ * Alta masiva de usuarios (por ejemplo, al incorporar un refugio asociado).
+ *
+ * Las filas se procesan en bloques de {@link #TAMANIO_BLOQUE}: se validan en memoria,
+ * se descartan los correos repetidos dentro del bloque, se consulta de una sola vez qué
+ * correos ya existen y el resto se inserta con un batch JDBC en su propia transacción.
+ * Las filas inválidas quedan en el resultado sin detener la importación.
+ *
+ * Se inserta con JdbcTemplate y no con saveAll: con GenerationType.IDENTITY Hibernate
+ * desactiva el batching de INSERT, mientras que el batch JDBC (con
+ * rewriteBatchedStatements=true en MySQL) envía el bloque en una sola sentencia
+ * multi-fila sin cambiar la estrategia de ids de la entidad. Los ids generados se leen del
+ * mismo batch y cada fila creada se registra en UsuarioCache, igual que un alta individual,
+ * para que se lea desde la primaria mientras las réplicas se ponen al día.
+ *
+ * El costo lo domina bcrypt (~100 ms por fila con el costo 10, repartido en la mitad de los
+ * hilos de ContraseniaService): por eso cada solicitud admite a lo sumo
+ * {@code usuarios.importacion.maximo-filas} filas.
+ */
+@Service
+@Timed(value = "usuarios.importacion", histogram = true)
+public class ImportacionUsuariosService {
+
+    static final int TAMANIO_BLOQUE = 500;
+
+    private static final Logger log = LoggerFactory.getLogger(ImportacionUsuariosService.class);
+
+    private static final String INSERT_USUARIO =
+        "insert into usuario (nombre, apellido, email, contrasenia, telefono, direccion, region, comuna, fecha_creacion, version) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private final UsuarioRepository usuarioRepository;
+    private final UsuarioValidator usuarioValidator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ContraseniaService contraseniaService;
+    private final UsuarioCache usuarioCache;
+    private final int maximoFilas;
+
+    public ImportacionUsuariosService(UsuarioRepository usuarioRepository, UsuarioValidator usuarioValidator,
+            JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+            ContraseniaService contraseniaService, UsuarioCache usuarioCache,
+            @Value("${usuarios.importacion.maximo-filas:5000}") int maximoFilas) {
+        this.usuarioRepository = usuarioRepository;
+        this.usuarioValidator = usuarioValidator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.contraseniaService = contraseniaService;
+        this.usuarioCache = usuarioCache;
+        this.maximoFilas = maximoFilas;
+    }
+
+    public ResultadoImportacion importarJson(InputStream entrada) throws IOException {
+        return importar(new LectorUsuariosJson(objectMapper, entrada));
+    }
+
+    public ResultadoImportacion importarCsv(Reader entrada) throws IOException {
+        return importar(new LectorUsuariosCsv(entrada));
+    }
+
+    ResultadoImportacion importar(LectorUsuarios lector) throws IOException {
+        ResultadoImportacion resultado = new ResultadoImportacion();
+        List<LectorUsuarios.Fila> bloque = new ArrayList<>(TAMANIO_BLOQUE);
+        try {
+            LectorUsuarios.Fila fila;
+            while ((fila = lector.siguiente()) != null) {
+                if (resultado.getProcesados() == maximoFilas) {
+                    resultado.agregarError(fila.numero(), null,
+                        "Se alcanzo el maximo de " + maximoFilas + " filas por importacion; el resto no se proceso");
+                    break;
+                }
+                resultado.setProcesados(resultado.getProcesados() + 1);
+                bloque.add(fila);
+                if (bloque.size() == TAMANIO_BLOQUE) {
+                    procesarBloque(bloque, resultado);
+                    bloque.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            // JSON mal formado: no se puede seguir leyendo, pero lo ya leído se importa
+            resultado.agregarError(resultado.getProcesados() + 1, null,
+                "JSON mal formado, se detuvo la lectura: " + e.getOriginalMessage());
+        }
+        procesarBloque(bloque, resultado);
+        return resultado;
+    }
+
+    private void procesarBloque(List<LectorUsuarios.Fila> bloque, ResultadoImportacion resultado) {
+        if (bloque.isEmpty()) {
+            return;
+        }
+        // 1. Validaciones en memoria y correos repetidos dentro del bloque
+        Map<String, LectorUsuarios.Fila> candidatas = new LinkedHashMap<>();
+        for (LectorUsuarios.Fila fila : bloque) {
+            String error = validar(fila);
+            if (error == null) {
+                String clave = UsuarioCache.normalizarEmail(fila.usuario().getEmail());
+                if (candidatas.putIfAbsent(clave, fila) != null) {
+                    error = "Correo repetido en la importacion";
+                }
+            }
+            if (error != null) {
+                resultado.agregarError(fila.numero(),
+                    fila.usuario() != null ? fila.usuario().getEmail() : null, error);
+            }
+        }
+        if (candidatas.isEmpty()) {
+            return;
+        }
+
+        // 2. Una sola consulta por bloque para los correos ya registrados
+        Set<String> registrados = new HashSet<>();
+        for (String email : usuarioRepository.findEmailsRegistrados(candidatas.keySet())) {
+            registrados.add(UsuarioCache.normalizarEmail(email));
+        }
+        List<LectorUsuarios.Fila> nuevas = new ArrayList<>(candidatas.size());
+        for (Map.Entry<String, LectorUsuarios.Fila> candidata : candidatas.entrySet()) {
+            if (registrados.contains(candidata.getKey())) {
+                LectorUsuarios.Fila fila = candidata.getValue();
+                resultado.agregarError(fila.numero(), fila.usuario().getEmail(),
+                    "El correo ingresado ya esta registrado");
+            } else {
+                nuevas.add(candidata.getValue());
+            }
+        }
+        if (nuevas.isEmpty()) {
+            return;
+        }
+
+        // bcrypt en el pool acotado de ContraseniaService (sin ocuparlo entero, para que los
+        // logins sigan entrando) y fuera de la transacción, para no retener la conexión
+        List<String> contrasenias = new ArrayList<>(nuevas.size());
+        for (LectorUsuarios.Fila fila : nuevas) {
+            contrasenias.add(fila.usuario().getContrasenia());
+        }
+        List<String> hashes = contraseniaService.hashearLote(contrasenias);
+        for (int i = 0; i < nuevas.size(); i++) {
+            nuevas.get(i).usuario().setContrasenia(hashes.get(i));
+        }
+
+        // 3. Insert en batch; si el bloque falla (p. ej. un correo registrado en paralelo)
+        //    se reintenta fila por fila para aislar sólo las filas con error
+        Timestamp ahora = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            List<Long> ids = transactionTemplate.execute(estado -> insertar(nuevas, ahora));
+            registrarCreados(nuevas, ids);
+            resultado.setCreados(resultado.getCreados() + nuevas.size());
+        } catch (DataAccessException e) {
+            for (LectorUsuarios.Fila fila : nuevas) {
+                try {
+                    List<Long> ids = transactionTemplate.execute(estado -> insertar(List.of(fila), ahora));
+                    registrarCreados(List.of(fila), ids);
+                    resultado.setCreados(resultado.getCreados() + 1);
+                } catch (DuplicateKeyException duplicado) {
+                    resultado.agregarError(fila.numero(), fila.usuario().getEmail(),
+                        "El correo ingresado ya esta registrado");
+                } catch (DataAccessException errorFila) {
+                    // El detalle (driver, tabla, restricción) queda en el log, no en la respuesta
+                    log.warn("Importacion: no se pudo guardar la fila {}", fila.numero(), errorFila);
+                    resultado.agregarError(fila.numero(), fila.usuario().getEmail(), "No se pudo guardar el usuario");
+                }
+            }
+        }
+    }
+
+    private String validar(LectorUsuarios.Fila fila) {
+        if (fila.error() != null) {
+            return fila.error();
+        }
+        Usuario usuario = fila.usuario();
+        if (usuario.getId() != null) {
+            return "El ID debe ser nulo";
+        }
+        Map<String, String> errores = usuarioValidator.validarRegistro(usuario);
+        if (!errores.isEmpty()) {
+            return new ValidacionUsuarioException(errores).getMessage();
+        }
+        return null;
+    }
+
+    /**
+     * @return los ids generados, en el orden de las filas
+     */
+    private List<Long> insertar(List<LectorUsuarios.Fila> filas, Timestamp fechaCreacion) {
+        KeyHolder generados = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(conexion -> conexion.prepareStatement(INSERT_USUARIO, new String[] {"id"}),
+            new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Usuario usuario = filas.get(i).usuario();
+                    ps.setString(1, usuario.getNombre());
+                    ps.setString(2, usuario.getApellido());
+                    ps.setString(3, usuario.getEmail());
+                    ps.setString(4, usuario.getContrasenia());
+                    ps.setString(5, usuario.getTelefono());
+                    ps.setString(6, usuario.getDireccion());
+                    ps.setString(7, usuario.getRegion());
+                    ps.setString(8, usuario.getComuna());
+                    ps.setTimestamp(9, fechaCreacion);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return filas.size();
+                }
+            }, generados);
+        // La columna de la clave depende del driver (id en H2, GENERATED_KEY en MySQL)
+        List<Long> ids = new ArrayList<>(filas.size());
+        for (Map<String, Object> clave : generados.getKeyList()) {
+            ids.add(((Number) clave.values().iterator().next()).longValue());
+        }
+        return ids;
+    }
+
+    /** Igual que crearUsuario: las lecturas siguientes de estos usuarios van a la primaria. */
+    private void registrarCreados(List<LectorUsuarios.Fila> filas, List<Long> ids) {
+        for (int i = 0; i < filas.size(); i++) {
+            usuarioCache.invalidar(i < ids.size() ? ids.get(i) : null, filas.get(i).usuario().getEmail());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.petsocity.petsocity.service;
+
+import java.io.IOException;
+
+import com.petsocity.petsocity.model.Usuario;
+
+/**
+ * Fuente de filas para la importación masiva. Lee de a una fila para que la
+ * importación no necesite cargar el archivo completo en memoria.
+ */
+interface LectorUsuarios {
+
+    /**
+     * @return la siguiente fila, o null cuando no quedan filas
+     */
+    Fila siguiente() throws IOException;
+
+    /**
+     * Fila leída: trae el usuario o, si no se pudo interpretar, el motivo del error.
+     */
+    record Fila(int numero, Usuario usuario, String error) {
+
+        static Fila valida(int numero, Usuario usuario) {
+            return new Fila(numero, usuario, null);
+        }
+
+        static Fila invalida(int numero, String error) {
+            return new Fila(numero, null, error);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.petsocity.petsocity.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.petsocity.petsocity.model.Usuario;
+
+/**
+ * Lee usuarios desde CSV línea a línea. La primera línea es la cabecera con los
+ * nombres de las columnas (nombre, apellido, email, contrasenia, telefono, direccion,
+ * region, comuna) en cualquier orden. Los valores pueden ir entre comillas dobles
+ * para incluir comas; las comillas se escapan duplicándolas. No se admiten saltos
+ * de línea dentro de un valor.
+ */
+class LectorUsuariosCsv implements LectorUsuarios {
+
+    private static final List<String> COLUMNAS = List.of(
+        "nombre", "apellido", "email", "contrasenia", "telefono", "direccion", "region", "comuna");
+
+    private final BufferedReader lector;
+    private final Map<String, Integer> posiciones = new HashMap<>();
+    private int numero;
+
+    LectorUsuariosCsv(Reader entrada) throws IOException {
+        this.lector = new BufferedReader(entrada);
+        String cabecera = lector.readLine();
+        if (cabecera == null) {
+            throw new IllegalArgumentException("El CSV no tiene cabecera");
+        }
+        if (cabecera.startsWith("\uFEFF")) {
+            cabecera = cabecera.substring(1);
+        }
+        List<String> nombres = separar(cabecera);
+        for (int i = 0; i < nombres.size(); i++) {
+            posiciones.put(nombres.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!posiciones.containsKey("email")) {
+            throw new IllegalArgumentException("La cabecera del CSV debe incluir la columna email");
+        }
+    }
+
+    @Override
+    public Fila siguiente() throws IOException {
+        String linea;
+        do {
+            linea = lector.readLine();
+            if (linea == null) {
+                return null;
+            }
+        } while (linea.isBlank());
+        numero++;
+
+        List<String> valores;
+        try {
+            valores = separar(linea);
+        } catch (IllegalArgumentException e) {
+            return Fila.invalida(numero, e.getMessage());
+        }
+        Map<String, String> fila = new HashMap<>();
+        for (String columna : COLUMNAS) {
+            Integer posicion = posiciones.get(columna);
+            if (posicion != null && posicion < valores.size()) {
+                fila.put(columna, valores.get(posicion));
+            }
+        }
+        Usuario usuario = new Usuario();
+        usuario.setNombre(fila.get("nombre"));
+        usuario.setApellido(fila.get("apellido"));
+        usuario.setEmail(fila.get("email"));
+        usuario.setContrasenia(fila.get("contrasenia"));
+        usuario.setTelefono(fila.get("telefono"));
+        usuario.setDireccion(fila.get("direccion"));
+        usuario.setRegion(fila.get("region"));
+        usuario.setComuna(fila.get("comuna"));
+        return Fila.valida(numero, usuario);
+    }
+
+    static List<String> separar(String linea) {
+        List<String> valores = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"' && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    actual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreComillas = false;
+                } else {
+                    actual.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                valores.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        if (entreComillas) {
+            throw new IllegalArgumentException("Comillas sin cerrar en la linea");
+        }
+        valores.add(actual.toString());
+        return valores;
+    }
+}
@@ -0,0 +1,54 @@
+package com.petsocity.petsocity.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.petsocity.petsocity.model.Usuario;
+
+/**
+ * Lee un arreglo JSON de usuarios elemento por elemento con el parser de Jackson.
+ * Cada elemento se lee primero como árbol, de modo que un usuario con tipos
+ * inválidos sólo invalida su propia fila y no el resto del arreglo.
+ */
+class LectorUsuariosJson implements LectorUsuarios {
+
+    private final ObjectMapper objectMapper;
+    private final JsonParser parser;
+    private int numero;
+    private boolean terminado;
+
+    LectorUsuariosJson(ObjectMapper objectMapper, InputStream entrada) throws IOException {
+        this.objectMapper = objectMapper;
+        this.parser = objectMapper.createParser(entrada);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new IllegalArgumentException("Se esperaba un arreglo JSON de usuarios");
+        }
+    }
+
+    @Override
+    public Fila siguiente() throws IOException {
+        if (terminado) {
+            return null;
+        }
+        JsonToken token = parser.nextToken();
+        if (token == null || token == JsonToken.END_ARRAY) {
+            terminado = true;
+            return null;
+        }
+        numero++;
+        JsonNode nodo = parser.readValueAsTree();
+        if (nodo == null || !nodo.isObject()) {
+            return Fila.invalida(numero, "Se esperaba un objeto usuario");
+        }
+        try {
+            return Fila.valida(numero, objectMapper.treeToValue(nodo, Usuario.class));
+        } catch (JsonProcessingException e) {
+            return Fila.invalida(numero, "Usuario con formato invalido: " + e.getOriginalMessage());
+        }
+    }
+}
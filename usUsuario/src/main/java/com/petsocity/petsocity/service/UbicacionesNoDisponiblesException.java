@@ -0,0 +1,12 @@
+package com.petsocity.petsocity.service;
+
+/**
+ * El servicio de ubicaciones no respondió a tiempo y no hay una copia local
+ * (en memoria ni en el snapshot) para responder en su lugar.
+ */
+public class UbicacionesNoDisponiblesException extends RuntimeException {
+
+    public UbicacionesNoDisponiblesException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,357 @@
+package com.petsocity.petsocity.service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Proxy con cache hacia el microservicio de ubicaciones (regiones y comunas).
+ * <p>
+ * Los datos casi nunca cambian, así que cada respuesta se guarda en memoria:
+ * <ul>
+ *   <li>dentro del {@code ttl} se responde desde memoria sin llamar al upstream;</li>
+ *   <li>pasado el ttl y dentro de {@code revalidacion} se responde la copia vieja y se
+ *       refresca en segundo plano (stale-while-revalidate);</li>
+ *   <li>más allá, se espera al upstream como máximo {@code espera} y si no responde se usa
+ *       la última copia buena, en memoria o en el snapshot en disco.</li>
+ * </ul>
+ * Las consultas concurrentes de una misma clave comparten una sola llamada al upstream.
+ * Los 4xx del upstream (por ejemplo, una región inexistente) no se cachean y se propagan.
+ * Las llamadas pasan por un circuit breaker y un bulkhead (ver HttpClienteConfig), así que
+ * con el upstream caído se responde la copia local sin esperar.
+ * <p>
+ * Las llamadas corren en un pool propio y acotado ({@code ubicaciones.executor.*}), no en
+ * applicationTaskExecutor: ése atiende las exportaciones asíncronas, que duran minutos, y un
+ * refresco encolado detrás de ellas haría esperar a cada consulta sin copia en memoria.
+ * Con el perfil virtual cada llamada usa un hilo virtual.
+ */
+@Service
+public class UbicacionesService implements MeterBinder, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(UbicacionesService.class);
+
+    private static final String CLAVE_REGIONES = "regiones";
+    private static final Pattern CODIGO_VALIDO = Pattern.compile("[A-Za-z0-9_-]{1,20}");
+
+    private final RestTemplate restTemplate;
+    private final String urlBase;
+    private final long ttlMillis;
+    private final long revalidacionMillis;
+    private final Duration espera;
+    private final Path directorioSnapshot;
+    private final Executor executor;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Clock clock;
+
+    // Acotado: las claves vienen de la URL. Una entrada ya no se sirve pasado ttl + revalidacion
+    // (luego queda el snapshot en disco), así que se descarta a ese plazo
+    private final Cache<String, Entrada> cache;
+    // Sólo las llamadas en curso: acotado por las claves válidas que se consultan a la vez
+    private final Map<String, CompletableFuture<String>> enVuelo = new ConcurrentHashMap<>();
+
+    private final Map<Origen, LongAdder> respuestas = new EnumMap<>(Origen.class);
+    private volatile Timer llamadasUpstream;
+
+    @Autowired
+    public UbicacionesService(RestTemplate restTemplate,
+            @Value("${ubicaciones.url-base}") String urlBase,
+            @Value("${ubicaciones.cache.ttl:1h}") Duration ttl,
+            @Value("${ubicaciones.cache.revalidacion:24h}") Duration revalidacion,
+            @Value("${ubicaciones.espera:2s}") Duration espera,
+            @Value("${ubicaciones.cache.maximo:1000}") long maximoEntradas,
+            @Value("${ubicaciones.snapshot.directorio:}") String directorioSnapshot,
+            @Value("${ubicaciones.executor.hilos:4}") int hilos,
+            @Value("${ubicaciones.executor.cola:100}") int cola,
+            @Value("${spring.threads.virtual.enabled:false}") boolean hilosVirtuales,
+            CircuitBreaker ubicacionesCircuitBreaker, Bulkhead ubicacionesBulkhead) {
+        this(restTemplate, urlBase, ttl, revalidacion, espera, maximoEntradas,
+            directorioSnapshot.isBlank() ? null : Path.of(directorioSnapshot), nuevoExecutor(hilos, cola, hilosVirtuales),
+            ubicacionesCircuitBreaker, ubicacionesBulkhead, Clock.systemUTC());
+    }
+
+    /**
+     * Pool acotado de hilos de plataforma (con la cola llena la llamada falla y se usa la copia
+     * local), o un hilo virtual por llamada; en ambos casos el bulkhead acota las concurrentes.
+     */
+    static ExecutorService nuevoExecutor(int hilos, int cola, boolean hilosVirtuales) {
+        if (hilosVirtuales) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("ubicaciones-", 1).factory());
+        }
+        AtomicInteger contador = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(hilos, hilos, 60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(cola), tarea -> {
+                Thread hilo = new Thread(tarea, "ubicaciones-" + contador.incrementAndGet());
+                hilo.setDaemon(true);
+                return hilo;
+            }, new ThreadPoolExecutor.AbortPolicy());
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    UbicacionesService(RestTemplate restTemplate, String urlBase, Duration ttl, Duration revalidacion, Duration espera,
+            long maximoEntradas, Path directorioSnapshot, Executor executor, CircuitBreaker circuitBreaker,
+            Bulkhead bulkhead, Clock clock) {
+        this.restTemplate = restTemplate;
+        this.urlBase = urlBase;
+        this.ttlMillis = ttl.toMillis();
+        this.revalidacionMillis = revalidacion.toMillis();
+        this.espera = espera;
+        this.directorioSnapshot = directorioSnapshot;
+        this.executor = executor;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximoEntradas)
+            .expireAfterWrite(ttl.plus(revalidacion))
+            .ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis()))
+            .build();
+        for (Origen origen : Origen.values()) {
+            respuestas.put(origen, new LongAdder());
+        }
+    }
+
+    /**
+     * Respuestas por origen (memoria, revalidando, upstream, copia de respaldo) y duración
+     * de las llamadas al upstream, incluidas las rechazadas por el circuit breaker.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        respuestas.forEach((origen, contador) ->
+            FunctionCounter.builder("ubicaciones.respuestas", contador, LongAdder::sum)
+                .description("Respuestas de ubicaciones según de dónde se obtuvieron")
+                .tag("origen", origen.etiqueta)
+                .register(registry));
+        llamadasUpstream = Timer.builder("ubicaciones.upstream")
+            .description("Llamadas al microservicio de ubicaciones")
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+
+    public String obtenerRegiones() {
+        return obtener(CLAVE_REGIONES, UriComponentsBuilder.fromUriString(urlBase).path("/regiones").build().toUri());
+    }
+
+    /**
+     * @throws IllegalArgumentException si el código no tiene el formato de un código de región
+     */
+    public String obtenerComunas(String codigoRegion) {
+        if (codigoRegion == null || !CODIGO_VALIDO.matcher(codigoRegion).matches()) {
+            throw new IllegalArgumentException("Codigo de region invalido");
+        }
+        URI url = UriComponentsBuilder.fromUriString(urlBase).path("/regiones/{codigo}/comunas")
+            .buildAndExpand(codigoRegion).encode().toUri();
+        return obtener("comunas-" + codigoRegion, url);
+    }
+
+    @Override
+    public void destroy() {
+        if (executor instanceof ExecutorService servicio) {
+            servicio.shutdownNow();
+        }
+    }
+
+    private String obtener(String clave, URI url) {
+        Entrada entrada = cache.getIfPresent(clave);
+        long ahora = clock.millis();
+        if (entrada != null) {
+            long edad = ahora - entrada.obtenidaEn();
+            if (edad < ttlMillis) {
+                contar(Origen.MEMORIA);
+                return entrada.cuerpo();
+            }
+            if (edad < ttlMillis + revalidacionMillis) {
+                refrescar(clave, url);
+                contar(Origen.REVALIDANDO);
+                return entrada.cuerpo();
+            }
+        }
+
+        CompletableFuture<String> llamada = refrescar(clave, url);
+        try {
+            String cuerpo = llamada.get(espera.toMillis(), TimeUnit.MILLISECONDS);
+            contar(Origen.UPSTREAM);
+            return cuerpo;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return respaldo(clave, entrada, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof HttpClientErrorException errorCliente) {
+                throw errorCliente;
+            }
+            return respaldo(clave, entrada, e.getCause());
+        } catch (TimeoutException e) {
+            // La llamada sigue en curso y actualizará el cache cuando termine
+            return respaldo(clave, entrada, e);
+        }
+    }
+
+    /**
+     * Lanza la consulta al upstream si no hay otra en curso para la misma clave y
+     * devuelve la llamada compartida.
+     */
+    private CompletableFuture<String> refrescar(String clave, URI url) {
+        CompletableFuture<String> nueva = new CompletableFuture<>();
+        CompletableFuture<String> existente = enVuelo.putIfAbsent(clave, nueva);
+        if (existente != null) {
+            return existente;
+        }
+        try {
+            executor.execute(() -> consultar(clave, url, nueva));
+        } catch (RuntimeException e) {
+            enVuelo.remove(clave, nueva);
+            nueva.completeExceptionally(e);
+        }
+        return nueva;
+    }
+
+    private void consultar(String clave, URI url, CompletableFuture<String> llamada) {
+        long inicio = System.nanoTime();
+        String cuerpo = null;
+        Throwable error = null;
+        try {
+            // Con el circuito abierto o el bulkhead lleno falla sin llamar al upstream
+            cuerpo = circuitBreaker.executeSupplier(
+                Bulkhead.decorateSupplier(bulkhead, () -> restTemplate.getForObject(url, String.class)));
+            if (cuerpo == null) {
+                throw new IllegalStateException("Respuesta vacía de " + url);
+            }
+            cache.put(clave, new Entrada(cuerpo, clock.millis()));
+            guardarSnapshot(clave, cuerpo);
+        } catch (Throwable e) {
+            error = e;
+        }
+        Timer timer = llamadasUpstream;
+        if (timer != null) {
+            timer.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+        }
+        // Se retira antes de completar: quien llegue después ya ve el cache nuevo o lanza otra llamada,
+        // en vez de unirse a una llamada que ya falló
+        enVuelo.remove(clave, llamada);
+        if (error != null) {
+            llamada.completeExceptionally(error);
+            return;
+        }
+        llamada.complete(cuerpo);
+    }
+
+    private String respaldo(String clave, Entrada entrada, Throwable causa) {
+        if (entrada != null) {
+            log.warn("Ubicaciones '{}' sin respuesta del upstream, se usa la copia en memoria: {}", clave, causa.toString());
+            contar(Origen.COPIA_MEMORIA);
+            return entrada.cuerpo();
+        }
+        String snapshot = leerSnapshot(clave);
+        if (snapshot != null) {
+            log.warn("Ubicaciones '{}' sin respuesta del upstream, se usa el snapshot local: {}", clave, causa.toString());
+            // Se deja como vencida para que la próxima consulta intente refrescarla
+            cache.asMap().putIfAbsent(clave, new Entrada(snapshot, Long.MIN_VALUE / 2));
+            contar(Origen.SNAPSHOT);
+            return snapshot;
+        }
+        contar(Origen.NO_DISPONIBLE);
+        throw new UbicacionesNoDisponiblesException("El servicio de ubicaciones no está disponible", causa);
+    }
+
+    private Path archivoSnapshot(String clave) {
+        if (directorioSnapshot == null) {
+            return null;
+        }
+        String nombre = clave.startsWith("comunas-") ? clave.substring("comunas-".length()) : clave;
+        if (!CODIGO_VALIDO.matcher(nombre).matches()) {
+            return null;
+        }
+        return directorioSnapshot.resolve(clave + ".json");
+    }
+
+    private void guardarSnapshot(String clave, String cuerpo) {
+        Path archivo = archivoSnapshot(clave);
+        if (archivo == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(directorioSnapshot);
+            Path temporal = Files.createTempFile(directorioSnapshot, clave, ".tmp");
+            Files.writeString(temporal, cuerpo, StandardCharsets.UTF_8);
+            Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("No se pudo guardar el snapshot de ubicaciones '{}': {}", clave, e.toString());
+        }
+    }
+
+    private String leerSnapshot(String clave) {
+        Path archivo = archivoSnapshot(clave);
+        if (archivo == null || !Files.isRegularFile(archivo)) {
+            return null;
+        }
+        try {
+            return Files.readString(archivo, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.warn("No se pudo leer el snapshot de ubicaciones '{}': {}", clave, e.toString());
+            return null;
+        }
+    }
+
+    private void contar(Origen origen) {
+        respuestas.get(origen).increment();
+    }
+
+    private record Entrada(String cuerpo, long obtenidaEn) {
+    }
+
+    private enum Origen {
+        MEMORIA("memoria"),
+        REVALIDANDO("revalidando"),
+        UPSTREAM("upstream"),
+        COPIA_MEMORIA("copia-memoria"),
+        SNAPSHOT("snapshot"),
+        NO_DISPONIBLE("no-disponible");
+
+        private final String etiqueta;
+
+        Origen(String etiqueta) {
+            this.etiqueta = etiqueta;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.petsocity.petsocity.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.petsocity.petsocity.model.CredencialesUsuario;
+import com.petsocity.petsocity.model.Usuario;
+import com.petsocity.petsocity.repository.LecturaPrimaria;
+
+/**
+ * Caché de lectura (read-through) de usuarios por id y por correo.
+ *
+ * Los usuarios se guardan una sola vez, por id; el caché por correo sólo guarda el id
+ * correspondiente. Así basta con invalidar el id para que una lectura por correo no
+ * devuelva datos viejos: si el id ya no está, o el usuario cambió de correo, la lectura
+ * se trata como un fallo y se vuelve a la BD.
+ *
+ * El tamaño máximo, el TTL y el registro de aciertos/fallos se configuran con
+ * {@code spring.cache.caffeine.spec}.
+ *
+ * Con réplicas de lectura (ReplicasConfig), un usuario invalidado hace menos de
+ * {@code replicas.lectura-propia} se vuelve a leer desde la primaria: quien lo acaba de
+ * crear o modificar lo ve aunque las réplicas aún no tengan el cambio. El registro es local
+ * a cada instancia: la garantía vale con una sola instancia o con sesiones fijas (sticky)
+ * en el balanceador; en otra instancia la lectura puede ir a una réplica atrasada.
+ */
+@Component
+public class UsuarioCache {
+
+    public static final String USUARIOS_POR_ID = "usuariosPorId";
+    public static final String IDS_POR_EMAIL = "idsPorEmail";
+
+    private final Cache usuariosPorId;
+    private final Cache idsPorEmail;
+    // Ids y correos escritos recientemente; mientras estén aquí se leen desde la primaria
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Boolean> escritosRecientes;
+
+    public UsuarioCache(CacheManager cacheManager, @Value("${replicas.lectura-propia:5s}") Duration lecturaPropia) {
+        this.usuariosPorId = cacheManager.getCache(USUARIOS_POR_ID);
+        this.idsPorEmail = cacheManager.getCache(IDS_POR_EMAIL);
+        this.escritosRecientes = Caffeine.newBuilder()
+            .expireAfterWrite(lecturaPropia)
+            .maximumSize(100_000)
+            .build();
+    }
+
+    public Usuario obtenerPorId(Long id, Function<Long, Usuario> cargador) {
+        Usuario usuario = usuariosPorId.get(id, Usuario.class);
+        if (usuario != null) {
+            return usuario;
+        }
+        usuario = cargar(cargador, id, esReciente(id));
+        if (usuario != null) {
+            guardar(usuario);
+        }
+        return usuario;
+    }
+
+    public Usuario obtenerPorEmail(String email, Function<String, Usuario> cargador) {
+        String clave = normalizarEmail(email);
+        if (clave == null) {
+            return null;
+        }
+        Long id = idsPorEmail.get(clave, Long.class);
+        if (id != null) {
+            Usuario usuario = usuariosPorId.get(id, Usuario.class);
+            if (usuario != null && clave.equals(normalizarEmail(usuario.getEmail()))) {
+                return usuario;
+            }
+        }
+        // El id cuenta también: un PATCH sin correo sólo invalida por id
+        Usuario usuario = cargar(cargador, email, esReciente(clave) || (id != null && esReciente(id)));
+        if (usuario != null) {
+            guardar(usuario);
+        }
+        return usuario;
+    }
+
+    /**
+     * Credenciales para el login: si el usuario está en caché se usan sus datos; si no, se
+     * cargan con la proyección del cargador, que no se guarda en caché (no es un usuario completo).
+     */
+    public CredencialesUsuario obtenerCredenciales(String email, Function<String, CredencialesUsuario> cargador) {
+        String clave = normalizarEmail(email);
+        if (clave == null) {
+            return null;
+        }
+        Long id = idsPorEmail.get(clave, Long.class);
+        if (id != null) {
+            Usuario usuario = usuariosPorId.get(id, Usuario.class);
+            if (usuario != null && clave.equals(normalizarEmail(usuario.getEmail()))) {
+                return CredencialesUsuario.de(usuario);
+            }
+        }
+        return cargar(cargador, email, esReciente(clave) || (id != null && esReciente(id)));
+    }
+
+    /**
+     * Lectura por lote: devuelve los usuarios en caché y carga el resto con una sola
+     * llamada al cargador, que recibe sólo los ids faltantes.
+     */
+    public Map<Long, Usuario> obtenerVariosPorId(Collection<Long> ids, Function<Collection<Long>, List<Usuario>> cargador) {
+        Map<Long, Usuario> encontrados = new HashMap<>();
+        List<Long> faltantes = new ArrayList<>();
+        for (Long id : ids) {
+            Usuario usuario = usuariosPorId.get(id, Usuario.class);
+            if (usuario != null) {
+                encontrados.put(id, usuario);
+            } else {
+                faltantes.add(id);
+            }
+        }
+        if (!faltantes.isEmpty()) {
+            boolean primaria = faltantes.stream().anyMatch(this::esReciente);
+            for (Usuario usuario : cargar(cargador, faltantes, primaria)) {
+                guardar(usuario);
+                encontrados.put(usuario.getId(), usuario);
+            }
+        }
+        return encontrados;
+    }
+
+    /**
+     * Igual que {@link #obtenerVariosPorId}, pero por correo. Las claves del mapa
+     * resultante son los correos normalizados.
+     */
+    public Map<String, Usuario> obtenerVariosPorEmail(Collection<String> emails, Function<Collection<String>, List<Usuario>> cargador) {
+        Map<String, Usuario> encontrados = new HashMap<>();
+        List<String> faltantes = new ArrayList<>();
+        for (String email : emails) {
+            String clave = normalizarEmail(email);
+            if (clave == null) {
+                continue;
+            }
+            Long id = idsPorEmail.get(clave, Long.class);
+            Usuario usuario = id != null ? usuariosPorId.get(id, Usuario.class) : null;
+            if (usuario != null && clave.equals(normalizarEmail(usuario.getEmail()))) {
+                encontrados.put(clave, usuario);
+            } else {
+                faltantes.add(email);
+            }
+        }
+        if (!faltantes.isEmpty()) {
+            boolean primaria = faltantes.stream().anyMatch(email -> esReciente(normalizarEmail(email)));
+            for (Usuario usuario : cargar(cargador, faltantes, primaria)) {
+                guardar(usuario);
+                encontrados.put(normalizarEmail(usuario.getEmail()), usuario);
+            }
+        }
+        return encontrados;
+    }
+
+    /**
+     * Invalida las entradas del usuario ahora y, si hay una transacción en curso,
+     * nuevamente después del commit, para que una lectura concurrente no vuelva a
+     * cachear la versión anterior mientras la escritura aún no es visible.
+     */
+    public void invalidar(Long id, String email) {
+        if (id != null) {
+            escritosRecientes.put(id, Boolean.TRUE);
+        }
+        if (email != null) {
+            escritosRecientes.put(normalizarEmail(email), Boolean.TRUE);
+        }
+        evict(id, email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(id, email);
+                }
+            });
+        }
+    }
+
+    public static String normalizarEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private boolean esReciente(Object clave) {
+        return escritosRecientes.getIfPresent(clave) != null;
+    }
+
+    private static <K, V> V cargar(Function<K, V> cargador, K clave, boolean desdePrimaria) {
+        return desdePrimaria ? LecturaPrimaria.ejecutar(() -> cargador.apply(clave)) : cargador.apply(clave);
+    }
+
+    private void guardar(Usuario usuario) {
+        if (usuario.getId() == null) {
+            return;
+        }
+        usuariosPorId.put(usuario.getId(), usuario);
+        if (usuario.getEmail() != null) {
+            idsPorEmail.put(normalizarEmail(usuario.getEmail()), usuario.getId());
+        }
+    }
+
+    private void evict(Long id, String email) {
+        if (id != null) {
+            usuariosPorId.evict(id);
+        }
+        if (email != null) {
+            idsPorEmail.evict(normalizarEmail(email));
+        }
+    }
+}
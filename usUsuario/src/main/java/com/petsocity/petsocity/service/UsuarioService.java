@@ -1,124 +1,343 @@
 package com.petsocity.petsocity.service;
 
+import java.util.Iterator;
 import java.util.List;
-import java.util.Optional;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.petsocity.petsocity.model.CredencialesUsuario;
+import com.petsocity.petsocity.model.FiltroUsuarios;
+import com.petsocity.petsocity.model.LoteUsuarios;
+import com.petsocity.petsocity.model.PaginaUsuarios;
+import com.petsocity.petsocity.model.ResumenUsuario;
 import com.petsocity.petsocity.model.Usuario;
+import com.petsocity.petsocity.repository.LecturaPrimaria;
 import com.petsocity.petsocity.repository.UsuarioRepository;
-import jakarta.transaction.Transactional;
+import com.petsocity.petsocity.security.ContraseniaService;
+import com.petsocity.petsocity.validation.UsuarioValidator;
 
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Las transacciones se abren por método y sólo alrededor del acceso a la BD: el hash bcrypt
+ * y las lecturas resueltas desde UsuarioCache no retienen una conexión del pool. Las
+ * lecturas usan transacciones de sólo lectura (sin flush ni dirty-checking de Hibernate);
+ * las escrituras de una sola sentencia usan la transacción del repositorio.
+ */
 @Service
-@Transactional
+@Timed(value = "usuarios.servicio", histogram = true)
 public class UsuarioService {
 
+    public static final int LIMITE_POR_DEFECTO = 20;
+    public static final int LIMITE_MAXIMO = 100;
+    // Índice único del correo (V1__crear_tabla_usuario.sql; V3 renombra el que generó Hibernate)
+    static final String RESTRICCION_EMAIL = "uk_usuario_email";
+
     @Autowired
     private final UsuarioRepository usuarioRepository;
+    private final UsuarioValidator usuarioValidator;
+    private final UsuarioCache usuarioCache;
+    private final ContraseniaService contraseniaService;
+    private final TransactionTemplate escritura;
 
-    public UsuarioService(UsuarioRepository usuarioRepository) {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public UsuarioService(UsuarioRepository usuarioRepository, UsuarioValidator usuarioValidator, UsuarioCache usuarioCache,
+            ContraseniaService contraseniaService, PlatformTransactionManager transactionManager) {
         this.usuarioRepository = usuarioRepository;
+        this.usuarioValidator = usuarioValidator;
+        this.usuarioCache = usuarioCache;
+        this.contraseniaService = contraseniaService;
+        this.escritura = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Devuelve una página de usuarios con id mayor que {@code after}, ordenada por id.
+     * Se consulta un registro extra para saber si existe una página siguiente sin
+     * necesidad de un COUNT. El límite se acota a [1, LIMITE_MAXIMO].
+     */
+    @Transactional(readOnly = true)
+    public PaginaUsuarios obtenerPaginaUsuarios(Long after, Integer limit) {
+        int limite = normalizarLimite(limit);
+        long cursor = after == null ? 0L : after;
+
+        List<Usuario> usuarios = usuarioRepository.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(limite + 1));
+        return paginar(usuarios, limite);
+    }
+
+    /**
+     * Búsqueda por región, comuna y/o prefijo del nombre, paginada por cursor igual que
+     * {@link #obtenerPaginaUsuarios}. Los filtros vacíos se ignoran.
+     */
+    @Transactional(readOnly = true)
+    public PaginaUsuarios buscarUsuarios(FiltroUsuarios filtro, Long after, Integer limit) {
+        int limite = normalizarLimite(limit);
+        long cursor = after == null ? 0L : after;
+        FiltroUsuarios normalizado = new FiltroUsuarios(
+            normalizarFiltro(filtro.getRegion()), normalizarFiltro(filtro.getComuna()), normalizarFiltro(filtro.getNombre()));
+
+        return paginar(usuarioRepository.buscar(normalizado, cursor, limite + 1), limite);
+    }
+
+    private static String normalizarFiltro(String valor) {
+        return valor == null || valor.isBlank() ? null : valor.trim();
+    }
+
+    // Se pidió un registro extra: si llegó, hay página siguiente y el cursor es el último id de ésta
+    private static PaginaUsuarios paginar(List<Usuario> usuarios, int limite) {
+        if (usuarios.size() <= limite) {
+            return new PaginaUsuarios(usuarios, null);
+        }
+        List<Usuario> pagina = usuarios.subList(0, limite);
+        return new PaginaUsuarios(pagina, pagina.get(limite - 1).getId());
     }
 
-    public List<Usuario> obtenerTodosUsuarios() {
-        return usuarioRepository.findAll();
+    /**
+     * Recorre la tabla completa entregando cada usuario al consumidor a medida que se lee.
+     * Cada entidad se desacopla del contexto de persistencia luego de procesarla, por lo que
+     * la memoria usada no crece con el tamaño de la tabla. La conexión queda tomada mientras
+     * dure la exportación.
+     *
+     * @return cantidad de usuarios exportados
+     */
+    @Transactional(readOnly = true)
+    public long exportarUsuarios(Consumer<Usuario> consumidor) {
+        long total = 0;
+        try (Stream<Usuario> usuarios = usuarioRepository.recorrerPorId()) {
+            Iterator<Usuario> iterador = usuarios.iterator();
+            while (iterador.hasNext()) {
+                Usuario usuario = iterador.next();
+                consumidor.accept(usuario);
+                entityManager.detach(usuario);
+                total++;
+            }
+        }
+        return total;
     }
 
+    public static int normalizarLimite(Integer limit) {
+        if (limit == null) {
+            return LIMITE_POR_DEFECTO;
+        }
+        return Math.max(1, Math.min(limit, LIMITE_MAXIMO));
+    }
+
+    // Sin transacción propia: un acierto del caché no toma conexión y un fallo usa la
+    // transacción de sólo lectura del repositorio
     public Usuario obtenerPorIdUsuario(Long id) {
-        return usuarioRepository.findById(id).orElse(null);
+        return usuarioCache.obtenerPorId(id, clave -> usuarioRepository.findById(clave).orElse(null));
     }
 
     public Usuario obtenerPorCorreo(String email) {
-    return usuarioRepository.findByEmail(email)
-            .orElse(null);
-}
+        return usuarioCache.obtenerPorEmail(email, clave -> usuarioRepository.findByEmail(clave).orElse(null));
+    }
+
+    /**
+     * Lectura por lote para otros servicios: resuelve hasta LIMITE_MAXIMO ids y/o correos
+     * con una consulta IN por tipo de clave (sólo para los que no están en caché).
+     */
+    public LoteUsuarios obtenerLote(List<Long> ids, List<String> emails) {
+        List<Long> idsPedidos = ids == null ? List.of() : ids.stream().filter(Objects::nonNull).distinct().toList();
+        List<String> emailsPedidos = emails == null ? List.of() : emails.stream().filter(Objects::nonNull).distinct().toList();
+        int total = idsPedidos.size() + emailsPedidos.size();
+        if (total == 0) {
+            throw new IllegalArgumentException("Debe indicar al menos un id o correo");
+        }
+        if (total > LIMITE_MAXIMO) {
+            throw new IllegalArgumentException("Se pueden consultar como maximo " + LIMITE_MAXIMO + " usuarios por lote");
+        }
 
-    // Método para validar la contraseña
+        LoteUsuarios lote = new LoteUsuarios();
+        if (!idsPedidos.isEmpty()) {
+            Map<Long, Usuario> porId = usuarioCache.obtenerVariosPorId(idsPedidos, usuarioRepository::findAllById);
+            for (Long id : idsPedidos) {
+                agregarAlLote(lote, String.valueOf(id), porId.get(id));
+            }
+        }
+        if (!emailsPedidos.isEmpty()) {
+            Map<String, Usuario> porEmail = usuarioCache.obtenerVariosPorEmail(emailsPedidos, usuarioRepository::findByEmailIn);
+            for (String email : emailsPedidos) {
+                agregarAlLote(lote, email, porEmail.get(UsuarioCache.normalizarEmail(email)));
+            }
+        }
+        return lote;
+    }
+
+    private static void agregarAlLote(LoteUsuarios lote, String clave, Usuario usuario) {
+        if (usuario != null) {
+            lote.getUsuarios().put(clave, usuario);
+        } else {
+            lote.getNoEncontrados().add(clave);
+        }
+    }
+
+    // Método para validar la contraseña (bcrypt, o texto plano en filas antiguas)
     public boolean validarPassword(String rawPassword, String passwordBD) {
-        return rawPassword.equals(passwordBD);
+        return contraseniaService.verificar(rawPassword, passwordBD);
     }
 
-    // Método para login
-public Usuario loginUsuario(String email, String contrasenia) {
-    Usuario usuario = usuarioRepository.findByEmail(email).orElse(null);
-    if (usuario == null) return null;
-    if (!validarPassword(contrasenia, usuario.getContrasenia())) return null;
-    return usuario;
-}
+    // Método para login. Sin transacción: la verificación bcrypt no retiene una conexión.
+    // Fuera del caché se leen sólo las columnas del login (CredencialesUsuario)
+    public ResumenUsuario loginUsuario(String email, String contrasenia) {
+        CredencialesUsuario credenciales = usuarioCache.obtenerCredenciales(email,
+            clave -> usuarioRepository.findCredencialesByEmail(clave).orElse(null));
+        if (credenciales == null) {
+            contraseniaService.verificarFicticio(contrasenia);
+            return null;
+        }
+        if (!validarPassword(contrasenia, credenciales.getContrasenia())) return null;
+
+        // Filas en texto plano o con un costo antiguo: se guardan con el hash actual. Una
+        // contraseña antigua de más de 72 bytes no se puede pasar a bcrypt y queda como está
+        if (contraseniaService.necesitaRehash(credenciales.getContrasenia()) && ContraseniaService.admiteHash(contrasenia)) {
+            usuarioRepository.actualizarContrasenia(credenciales.getId(), credenciales.getContrasenia(),
+                contraseniaService.hashear(contrasenia));
+            usuarioCache.invalidar(credenciales.getId(), credenciales.getEmail());
+        }
+        return new ResumenUsuario(credenciales.getId(), credenciales.getNombre(), credenciales.getEmail());
+    }
 
 
     public Usuario crearUsuario(Usuario usuario) {
         if (usuario.getId() != null) {
             throw new RuntimeException("El ID debe ser nulo");
         }
+        // Primero las validaciones en memoria: un registro inválido no llega a la BD
+        usuarioValidator.exigirRegistroValido(usuario);
         if (usuarioRepository.existsByEmail(usuario.getEmail())){
             throw new IllegalArgumentException("El correo ingresado ya esta registrado");
         }
-        if (!usuario.getNombre().matches("^[A-Za-zÁÉÍÓÚÑáéíóúñ ]+$")) {
-        throw new IllegalArgumentException("El primer nombre solo debe contener letras");
+        // El hash se calcula fuera de la transacción; un alta concurrente con el mismo correo
+        // la rechaza el índice único
+        usuario.setContrasenia(contraseniaService.hashear(usuario.getContrasenia()));
+        Usuario creado;
+        try {
+            creado = usuarioRepository.save(usuario);
+        } catch (DataIntegrityViolationException e) {
+            throw comoCorreoDuplicado(e);
         }
-        if (!usuario.getApellido().matches("^[A-Za-zÁÉÍÓÚÑáéíóúñ ]+$")) {
-        throw new IllegalArgumentException("El primer apellido solo debe contener letras");
-        }
-        if (!usuario.getEmail().matches("^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$")) {
-        throw new IllegalArgumentException("El correo debe tener un formato válido");
+        usuarioCache.invalidar(creado.getId(), creado.getEmail());
+        return creado;
+    }
+
+    /**
+     * Sólo la violación del índice único del correo se informa como correo ya registrado
+     * (IllegalArgumentException, 400); cualquier otra (NOT NULL, largo, FK) se relanza tal cual.
+     */
+    static RuntimeException comoCorreoDuplicado(DataIntegrityViolationException e) {
+        String mensaje = e.getMostSpecificCause().getMessage();
+        if (mensaje != null && mensaje.toLowerCase(Locale.ROOT).contains(RESTRICCION_EMAIL)) {
+            return new IllegalArgumentException("El correo ingresado ya esta registrado", e);
         }
-        return usuarioRepository.save(usuario);
+        return e;
     }
 
-    public Usuario actualizarUsuario(Long id, Usuario datosActualizados) {
-        return usuarioRepository.findById(id).map(usuario -> {
-            if (datosActualizados.getNombre() != null) {
-                usuario.setNombre(datosActualizados.getNombre());
-            }
-            if (datosActualizados.getApellido() != null) {
-                usuario.setApellido(datosActualizados.getApellido());
-            }
-            if (datosActualizados.getEmail() != null) {
-                usuario.setEmail(datosActualizados.getEmail());
-            }
-            if (datosActualizados.getContrasenia() != null){
-                usuario.setContrasenia(datosActualizados.getContrasenia());
-            }
-            if (datosActualizados.getTelefono() != null) {
-                usuario.setTelefono(datosActualizados.getTelefono());
-            }
-            if (datosActualizados.getDireccion() != null) {
-                usuario.setDireccion(datosActualizados.getDireccion());
-            }
-            if (datosActualizados.getRegion() != null) {
-                usuario.setRegion(datosActualizados.getRegion());
-            }
-            if (datosActualizados.getComuna() != null) {
-                usuario.setComuna(datosActualizados.getComuna());
-            }
+    /**
+     * Reemplaza los campos recibidos. Si {@code versionEsperada} no es null (If-Match) y no
+     * coincide con la versión actual, lanza VersionNoCoincideException. Una escritura
+     * concurrente entre la lectura y el commit la detecta @Version al hacer flush.
+     * La contraseña se hashea antes de abrir la transacción.
+     */
+    public Usuario actualizarUsuario(Long id, Usuario datosActualizados, Long versionEsperada) {
+        usuarioValidator.exigirCambiosValidos(datosActualizados);
+        String contraseniaNueva = datosActualizados.getContrasenia() == null
+            ? null : contraseniaService.hashear(datosActualizados.getContrasenia());
+        try {
+            return escritura.execute(estado -> usuarioRepository.findById(id).map(usuario -> {
+                if (versionEsperada != null && !versionEsperada.equals(usuario.getVersion())) {
+                    throw new VersionNoCoincideException("El usuario " + id + " fue modificado por otra solicitud");
+                }
+                String emailAnterior = usuario.getEmail();
+                if (datosActualizados.getNombre() != null) {
+                    usuario.setNombre(datosActualizados.getNombre());
+                }
+                if (datosActualizados.getApellido() != null) {
+                    usuario.setApellido(datosActualizados.getApellido());
+                }
+                if (datosActualizados.getEmail() != null) {
+                    usuario.setEmail(datosActualizados.getEmail());
+                }
+                if (contraseniaNueva != null) {
+                    usuario.setContrasenia(contraseniaNueva);
+                }
+                if (datosActualizados.getTelefono() != null) {
+                    usuario.setTelefono(datosActualizados.getTelefono());
+                }
+                if (datosActualizados.getDireccion() != null) {
+                    usuario.setDireccion(datosActualizados.getDireccion());
+                }
+                if (datosActualizados.getRegion() != null) {
+                    usuario.setRegion(datosActualizados.getRegion());
+                }
+                if (datosActualizados.getComuna() != null) {
+                    usuario.setComuna(datosActualizados.getComuna());
+                }
 
-            return usuarioRepository.save(usuario);
-        }).orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+                Usuario actualizado = usuarioRepository.save(usuario);
+                usuarioCache.invalidar(id, emailAnterior);
+                usuarioCache.invalidar(id, actualizado.getEmail());
+                return actualizado;
+            }).orElseThrow(() -> new RuntimeException("Usuario no encontrado")));
+        } catch (DataIntegrityViolationException e) {
+            // El correo nuevo lo rechaza el índice único al hacer flush en el commit
+            throw comoCorreoDuplicado(e);
+        }
     }
 
-    public boolean eliminarUsuario(Long id) {
-    Optional<Usuario> usuario = usuarioRepository.findById(id);
-        if (usuario.isPresent()) {
-            usuarioRepository.deleteById(id);
-            return true;
-        } else {
-            return false;
+    /**
+     * Actualización parcial (PATCH): escribe sólo los campos recibidos con un único UPDATE,
+     * sin leer la fila. Un correo ya registrado se informa como IllegalArgumentException.
+     * Con {@code versionEsperada} (If-Match) el UPDATE exige esa versión; si no actualiza
+     * nada y el usuario existe, lanza VersionNoCoincideException.
+     *
+     * @return false si el usuario no existe
+     */
+    public boolean actualizarParcialmente(Long id, Usuario cambios, Long versionEsperada) {
+        if (sinCambios(cambios)) {
+            throw new IllegalArgumentException("No se indicaron campos para actualizar");
+        }
+        usuarioValidator.exigirCambiosValidos(cambios);
+        if (cambios.getContrasenia() != null) {
+            cambios.setContrasenia(contraseniaService.hashear(cambios.getContrasenia()));
         }
+        int actualizados;
+        try {
+            actualizados = usuarioRepository.actualizarCampos(id, cambios, versionEsperada);
+        } catch (DataIntegrityViolationException e) {
+            throw comoCorreoDuplicado(e);
+        }
+        // Basta con invalidar el id: la entrada por correo anterior se descarta al no coincidir.
+        // La existencia se consulta en la primaria: una réplica atrasada no tendría un alta reciente
+        if (actualizados == 0 && versionEsperada != null
+                && LecturaPrimaria.ejecutar(() -> usuarioRepository.existsById(id))) {
+            throw new VersionNoCoincideException("El usuario " + id + " fue modificado por otra solicitud");
+        }
+        usuarioCache.invalidar(id, cambios.getEmail());
+        return actualizados > 0;
     }
 
-    //Obtener las regiones y comunas    
-    @Autowired
-    private RestTemplate restTemplate;
-
-    public String obtenerRegiones() {
-        String url = "https://petsocityusubicaciones-production.up.railway.app/api/ubicaciones/regiones";
-
-        return restTemplate.getForObject(url, String.class);
+    private static boolean sinCambios(Usuario cambios) {
+        return cambios.getNombre() == null && cambios.getApellido() == null && cambios.getEmail() == null
+            && cambios.getContrasenia() == null && cambios.getTelefono() == null && cambios.getDireccion() == null
+            && cambios.getRegion() == null && cambios.getComuna() == null;
     }
-    public String obtenerComunas(String codigoRegion) {
-        String url = "https://petsocityusubicaciones-production.up.railway.app/api/ubicaciones/regiones/{codigo}/comunas";
-        return restTemplate.getForObject(url, String.class, codigoRegion);
+
+    public boolean eliminarUsuario(Long id) {
+        int eliminados = usuarioRepository.eliminarPorId(id);
+        usuarioCache.invalidar(id, null);
+        return eliminados > 0;
     }
 }
@@ -0,0 +1,12 @@
+package com.petsocity.petsocity.service;
+
+/**
+ * La versión indicada por el cliente (If-Match) no es la versión actual del usuario:
+ * alguien lo modificó después de que el cliente lo leyó. El controlador responde 412.
+ */
+public class VersionNoCoincideException extends RuntimeException {
+
+    public VersionNoCoincideException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,213 @@
+package com.petsocity.petsocity.validation;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.petsocity.petsocity.model.Usuario;
+import com.petsocity.petsocity.security.ContraseniaService;
+
+/**
+ * Validador único de los datos de un usuario, usado por el registro y por la
+ * actualización. Reemplaza a los String.matches del servicio y a las anotaciones
+ * {@code @Email}/{@code @Pattern} de la entidad, que validaban el correo dos veces
+ * con expresiones distintas.
+ *
+ * Las reglas se evalúan con recorridos simples sobre los caracteres (equivalentes a
+ * las expresiones regulares originales), sin compilar patrones ni crear Matcher, y se
+ * devuelven todos los errores de una sola pasada.
+ */
+@Component
+public class UsuarioValidator {
+
+    public static final String CAMPO_OBLIGATORIO = "Campo obligatorio";
+    public static final String NOMBRE_INVALIDO = "El primer nombre solo debe contener letras";
+    public static final String APELLIDO_INVALIDO = "El primer apellido solo debe contener letras";
+    public static final String EMAIL_INVALIDO = "El correo debe tener un formato válido";
+    public static final String CONTRASENIA_INVALIDA = "La contraseña debe tener al menos 6 caracteres";
+    public static final String CONTRASENIA_DEMASIADO_LARGA =
+        "La contraseña debe tener como máximo " + ContraseniaService.MAXIMO_BYTES + " bytes (menos caracteres si usa tildes o ñ)";
+    public static final String DEMASIADO_LARGO = "Debe tener como máximo %d caracteres";
+
+    // El máximo de la contraseña no es Usuario.LARGO_CONTRASENIA (largo de la columna del
+    // hash) sino el de bcrypt: ContraseniaService.MAXIMO_BYTES en UTF-8
+    private static final int CONTRASENIA_MINIMO = 6;
+
+    /**
+     * Valida un usuario nuevo: todos los campos obligatorios deben venir informados.
+     *
+     * @return errores por campo, en orden de declaración; vacío si el usuario es válido
+     */
+    public Map<String, String> validarRegistro(Usuario usuario) {
+        Map<String, String> errores = null;
+        errores = validarLetras(errores, "nombre", usuario.getNombre(), NOMBRE_INVALIDO);
+        errores = validarLetras(errores, "apellido", usuario.getApellido(), APELLIDO_INVALIDO);
+        errores = validarEmail(errores, usuario.getEmail());
+        errores = validarContrasenia(errores, usuario.getContrasenia());
+        errores = validarLargo(errores, "telefono", usuario.getTelefono(), Usuario.LARGO_TELEFONO);
+        errores = validarObligatorio(errores, "direccion", usuario.getDireccion(), Usuario.LARGO_DIRECCION);
+        errores = validarObligatorio(errores, "region", usuario.getRegion(), Usuario.LARGO_REGION);
+        errores = validarObligatorio(errores, "comuna", usuario.getComuna(), Usuario.LARGO_COMUNA);
+        return errores == null ? Collections.emptyMap() : errores;
+    }
+
+    /**
+     * Valida una actualización parcial: sólo se revisan los campos informados (no nulos).
+     *
+     * @return errores por campo; vacío si los cambios son válidos
+     */
+    public Map<String, String> validarCambios(Usuario cambios) {
+        Map<String, String> errores = null;
+        if (cambios.getNombre() != null) {
+            errores = validarLetras(errores, "nombre", cambios.getNombre(), NOMBRE_INVALIDO);
+        }
+        if (cambios.getApellido() != null) {
+            errores = validarLetras(errores, "apellido", cambios.getApellido(), APELLIDO_INVALIDO);
+        }
+        if (cambios.getEmail() != null) {
+            errores = validarEmail(errores, cambios.getEmail());
+        }
+        if (cambios.getContrasenia() != null) {
+            errores = validarContrasenia(errores, cambios.getContrasenia());
+        }
+        errores = validarLargo(errores, "telefono", cambios.getTelefono(), Usuario.LARGO_TELEFONO);
+        if (cambios.getDireccion() != null) {
+            errores = validarObligatorio(errores, "direccion", cambios.getDireccion(), Usuario.LARGO_DIRECCION);
+        }
+        if (cambios.getRegion() != null) {
+            errores = validarObligatorio(errores, "region", cambios.getRegion(), Usuario.LARGO_REGION);
+        }
+        if (cambios.getComuna() != null) {
+            errores = validarObligatorio(errores, "comuna", cambios.getComuna(), Usuario.LARGO_COMUNA);
+        }
+        return errores == null ? Collections.emptyMap() : errores;
+    }
+
+    /**
+     * Valida y lanza {@link ValidacionUsuarioException} con todos los errores encontrados.
+     */
+    public void exigirRegistroValido(Usuario usuario) {
+        Map<String, String> errores = validarRegistro(usuario);
+        if (!errores.isEmpty()) {
+            throw new ValidacionUsuarioException(errores);
+        }
+    }
+
+    public void exigirCambiosValidos(Usuario cambios) {
+        Map<String, String> errores = validarCambios(cambios);
+        if (!errores.isEmpty()) {
+            throw new ValidacionUsuarioException(errores);
+        }
+    }
+
+    // ^[A-Za-zÁÉÍÓÚÑáéíóúñ ]+$
+    static boolean esSoloLetras(String valor) {
+        if (valor.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (!esLetraAscii(c) && c != ' ' && "ÁÉÍÓÚÑáéíóúñ".indexOf(c) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\.[A-Za-z]{2,}$
+    // El dominio de primer nivel sólo admite letras, así que el punto que lo separa
+    // es necesariamente el último punto del dominio.
+    static boolean esEmailValido(String valor) {
+        int arroba = valor.indexOf('@');
+        if (arroba <= 0) {
+            return false;
+        }
+        for (int i = 0; i < arroba; i++) {
+            char c = valor.charAt(i);
+            if (!esLetraAscii(c) && !esDigito(c) && ".%+-_".indexOf(c) < 0) {
+                return false;
+            }
+        }
+        int ultimoPunto = -1;
+        for (int i = arroba + 1; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '.') {
+                ultimoPunto = i;
+            } else if (!esLetraAscii(c) && !esDigito(c) && c != '-') {
+                return false;
+            }
+        }
+        if (ultimoPunto <= arroba + 1 || valor.length() - ultimoPunto - 1 < 2) {
+            return false;
+        }
+        for (int i = ultimoPunto + 1; i < valor.length(); i++) {
+            if (!esLetraAscii(valor.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean esLetraAscii(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    private static boolean esDigito(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean esVacio(String valor) {
+        return valor == null || valor.isBlank();
+    }
+
+    private static Map<String, String> validarLetras(Map<String, String> errores, String campo, String valor, String mensaje) {
+        if (esVacio(valor)) {
+            return agregar(errores, campo, CAMPO_OBLIGATORIO);
+        }
+        if (valor.length() > Usuario.LARGO_NOMBRE) {
+            return agregar(errores, campo, String.format(DEMASIADO_LARGO, Usuario.LARGO_NOMBRE));
+        }
+        return esSoloLetras(valor) ? errores : agregar(errores, campo, mensaje);
+    }
+
+    private static Map<String, String> validarEmail(Map<String, String> errores, String email) {
+        if (esVacio(email)) {
+            return agregar(errores, "email", CAMPO_OBLIGATORIO);
+        }
+        if (email.length() > Usuario.LARGO_EMAIL) {
+            return agregar(errores, "email", String.format(DEMASIADO_LARGO, Usuario.LARGO_EMAIL));
+        }
+        return esEmailValido(email) ? errores : agregar(errores, "email", EMAIL_INVALIDO);
+    }
+
+    private static Map<String, String> validarContrasenia(Map<String, String> errores, String contrasenia) {
+        if (esVacio(contrasenia)) {
+            return agregar(errores, "contrasenia", CAMPO_OBLIGATORIO);
+        }
+        if (contrasenia.length() < CONTRASENIA_MINIMO) {
+            return agregar(errores, "contrasenia", CONTRASENIA_INVALIDA);
+        }
+        return ContraseniaService.admiteHash(contrasenia)
+            ? errores
+            : agregar(errores, "contrasenia", CONTRASENIA_DEMASIADO_LARGA);
+    }
+
+    private static Map<String, String> validarObligatorio(Map<String, String> errores, String campo, String valor, int maximo) {
+        return esVacio(valor) ? agregar(errores, campo, CAMPO_OBLIGATORIO) : validarLargo(errores, campo, valor, maximo);
+    }
+
+    private static Map<String, String> validarLargo(Map<String, String> errores, String campo, String valor, int maximo) {
+        return valor != null && valor.length() > maximo
+            ? agregar(errores, campo, String.format(DEMASIADO_LARGO, maximo))
+            : errores;
+    }
+
+    // El mapa se crea sólo cuando aparece el primer error: el camino feliz no asigna memoria
+    private static Map<String, String> agregar(Map<String, String> errores, String campo, String mensaje) {
+        Map<String, String> resultado = errores == null ? new LinkedHashMap<>() : errores;
+        resultado.put(campo, mensaje);
+        return resultado;
+    }
+}
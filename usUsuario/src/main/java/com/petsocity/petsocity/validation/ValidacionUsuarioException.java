@@ -0,0 +1,27 @@
+package com.petsocity.petsocity.validation;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Error de validación con el detalle de todos los campos inválidos.
+ * Extiende IllegalArgumentException para que los controladores que ya manejan
+ * ese tipo respondan 400 sin cambios.
+ */
+public class ValidacionUsuarioException extends IllegalArgumentException {
+
+    private final Map<String, String> errores;
+
+    public ValidacionUsuarioException(Map<String, String> errores) {
+        super(errores.entrySet().stream()
+            .map(error -> error.getKey() + ": " + error.getValue())
+            .collect(Collectors.joining("; ")));
+        this.errores = Collections.unmodifiableMap(new LinkedHashMap<>(errores));
+    }
+
+    public Map<String, String> getErrores() {
+        return errores;
+    }
+}
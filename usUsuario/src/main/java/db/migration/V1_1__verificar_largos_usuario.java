@@ -0,0 +1,56 @@
+package db.migration;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Antes de V2: comprueba que ninguna fila exceda los largos a los que V2 acota las columnas.
+ * Un ALTER sobre datos más largos falla a medias o, con MySQL sin modo estricto, trunca en
+ * silencio; aquí se detiene la migración indicando qué columnas revisar. Los largos están
+ * fijos a propósito (no los LARGO_* de Usuario): una migración no debe cambiar después.
+ * Tras corregir las filas hay que ejecutar {@code flyway repair} antes de volver a migrar.
+ */
+public class V1_1__verificar_largos_usuario extends BaseJavaMigration {
+
+    private static final Map<String, Integer> LARGOS = new LinkedHashMap<>();
+
+    static {
+        LARGOS.put("nombre", 100);
+        LARGOS.put("apellido", 100);
+        LARGOS.put("telefono", 20);
+        LARGOS.put("direccion", 255);
+        LARGOS.put("region", 100);
+        LARGOS.put("comuna", 100);
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        List<String> excedidas = new ArrayList<>();
+        try (Statement sentencia = context.getConnection().createStatement()) {
+            for (Map.Entry<String, Integer> columna : LARGOS.entrySet()) {
+                String condicion = "char_length(" + columna.getKey() + ") > " + columna.getValue();
+                try (ResultSet filas = sentencia.executeQuery("select count(*) from usuario where " + condicion)) {
+                    filas.next();
+                    long cantidad = filas.getLong(1);
+                    if (cantidad > 0) {
+                        excedidas.add(columna.getKey() + " (" + cantidad + " filas; select id from usuario where "
+                            + condicion + ")");
+                    }
+                }
+            }
+        }
+        if (!excedidas.isEmpty()) {
+            throw new FlywayException("Hay usuarios con datos más largos de lo que admite V2; corregirlos antes de migrar: "
+                + String.join(", ", excedidas));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Las BD creadas con ddl-auto=update (registradas como V1 sin ejecutarla) tienen el índice
+ * único del correo con el nombre que generó Hibernate ({@code UK} + hash). Se renombra a
+ * {@code uk_usuario_email}, el nombre que UsuarioService reconoce como correo duplicado.
+ * En una BD creada por V1 ya tiene ese nombre y no se hace nada.
+ */
+public class V3__renombrar_indice_email_usuario extends BaseJavaMigration {
+
+    private static final String NOMBRE = "uk_usuario_email";
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection conexion = context.getConnection();
+        String actual = indiceUnicoDelCorreo(conexion);
+        if (actual == null || actual.toLowerCase(Locale.ROOT).contains(NOMBRE)) {
+            return;
+        }
+        String producto = conexion.getMetaData().getDatabaseProductName();
+        String sql = producto.toLowerCase(Locale.ROOT).contains("h2")
+            ? "alter index \"" + actual + "\" rename to " + NOMBRE
+            : "alter table usuario rename index `" + actual + "` to " + NOMBRE;
+        try (Statement sentencia = conexion.createStatement()) {
+            sentencia.execute(sql);
+        }
+    }
+
+    /** Nombre del índice único formado sólo por la columna email, o null si no hay. */
+    private static String indiceUnicoDelCorreo(Connection conexion) throws SQLException {
+        DatabaseMetaData metadatos = conexion.getMetaData();
+        Map<String, List<String>> columnasPorIndice = new LinkedHashMap<>();
+        try (ResultSet filas = metadatos.getIndexInfo(conexion.getCatalog(), conexion.getSchema(), "usuario", true, false)) {
+            while (filas.next()) {
+                String indice = filas.getString("INDEX_NAME");
+                String columna = filas.getString("COLUMN_NAME");
+                if (indice != null && columna != null) {
+                    columnasPorIndice.computeIfAbsent(indice, clave -> new ArrayList<>()).add(columna);
+                }
+            }
+        }
+        for (Map.Entry<String, List<String>> indice : columnasPorIndice.entrySet()) {
+            List<String> columnas = indice.getValue();
+            if (columnas.size() == 1 && columnas.get(0).equalsIgnoreCase("email")) {
+                return indice.getKey();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,17 @@
+-- Esquema inicial de usuario, tal como lo generaba ddl-auto=update.
+-- Las BD que ya tienen la tabla se registran en esta versión sin ejecutarla
+-- (spring.flyway.baseline-on-migrate) y continúan desde V2.
+create table if not exists usuario (
+    id bigint not null auto_increment,
+    nombre varchar(255) not null,
+    apellido varchar(255) not null,
+    email varchar(255) not null,
+    contrasenia varchar(255) not null,
+    telefono text not null,
+    direccion text not null,
+    region text not null,
+    comuna text not null,
+    fecha_creacion datetime(6),
+    primary key (id),
+    constraint uk_usuario_email unique (email)
+);
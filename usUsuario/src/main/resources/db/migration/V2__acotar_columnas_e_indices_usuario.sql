@@ -0,0 +1,17 @@
+-- Columnas acotadas (ver los LARGO_* de Usuario) para poder indexarlas
+alter table usuario modify column nombre varchar(100) not null;
+alter table usuario modify column apellido varchar(100) not null;
+alter table usuario modify column telefono varchar(20) not null;
+alter table usuario modify column direccion varchar(255) not null;
+alter table usuario modify column region varchar(100) not null;
+alter table usuario modify column comuna varchar(100) not null;
+
+-- Control de concurrencia optimista (@Version)
+alter table usuario add column version bigint default 0 not null;
+
+-- Búsqueda por región/comuna/nombre con paginación por id (UsuarioRepositoryCustom.buscar)
+create index idx_usuario_region_comuna_id on usuario (region, comuna, id);
+create index idx_usuario_comuna_id on usuario (comuna, id);
+create index idx_usuario_nombre_id on usuario (nombre, id);
+-- Listados y reportes por fecha de alta
+create index idx_usuario_fecha_creacion on usuario (fecha_creacion);
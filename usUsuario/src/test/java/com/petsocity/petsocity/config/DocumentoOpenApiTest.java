@@ -0,0 +1,52 @@
+package com.petsocity.petsocity.config;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Genera el documento OpenAPI del servicio. En prod/railway springdoc está desactivado y se
+ * sirve el archivo estático que escribe esta prueba: la tarea {@code generarOpenApi} la ejecuta
+ * con {@code -Dopenapi.salida=...} y bootJar lo empaqueta en {@code static/openapi/usuarios.json}.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class DocumentoOpenApiTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void generaElDocumentoConLosEndpointsDeUsuarios() throws Exception {
+        String documento = mockMvc.perform(get("/v3/api-docs"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.info.title").value("API 2025 Usuarios"))
+            .andExpect(jsonPath("$.paths['/api/v1/usuarios']").exists())
+            .andExpect(jsonPath("$.paths['/api/v1/usuarios/{id}']").exists())
+            .andReturn().getResponse().getContentAsString();
+
+        String salida = System.getProperty("openapi.salida");
+        if (salida != null) {
+            Path archivo = Path.of(salida);
+            Files.createDirectories(archivo.getParent());
+            Files.writeString(archivo, objectMapper.writerWithDefaultPrettyPrinter()
+                .writeValueAsString(objectMapper.readTree(documento)));
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.petsocity.petsocity.controller;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.petsocity.petsocity.observabilidad.SentenciasSql;
+
+/**
+ * Pruebas de UsuarioController sobre H2. Además del resultado, fijan las sentencias SQL
+ * por endpoint: si un cambio agrega idas y vueltas a la BD estas pruebas fallan; si las
+ * reduce, hay que bajar el número esperado.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class UsuarioControllerTest {
+
+    private static final AtomicInteger SECUENCIA = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String usuarioJson(String email) {
+        return usuarioJson(email, "Ana", "RM", "Santiago");
+    }
+
+    private String usuarioJson(String email, String nombre, String region, String comuna) {
+        return """
+            {"nombre": "%s", "apellido": "Rojas", "email": "%s", "contrasenia": "secreta123",
+             "telefono": "912345678", "direccion": "Calle 1", "region": "%s", "comuna": "%s"}
+            """.formatted(nombre, email, region, comuna);
+    }
+
+    private long crear(String email) throws Exception {
+        return crearDesdeJson(usuarioJson(email));
+    }
+
+    private long crearDesdeJson(String cuerpo) throws Exception {
+        String respuesta = mockMvc.perform(post("/api/v1/usuarios")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(cuerpo))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        JsonNode json = objectMapper.readTree(respuesta);
+        return json.get("id").asLong();
+    }
+
+    private String nuevoEmail() {
+        return "ana" + SECUENCIA.incrementAndGet() + "@petsocity.cl";
+    }
+
+    @Test
+    void crearUsuario() throws Exception {
+        mockMvc.perform(post("/api/v1/usuarios")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(usuarioJson(nuevoEmail())))
+            .andExpect(status().isCreated())
+            // existsByEmail + insert
+            .andExpect(SentenciasSql.cantidad(2));
+    }
+
+    @Test
+    void obtenerPorIdUsaElCacheDesdeLaSegundaLectura() throws Exception {
+        long id = crear(nuevoEmail());
+
+        mockMvc.perform(get("/api/v1/usuarios/{id}", id))
+            .andExpect(status().isOk())
+            .andExpect(SentenciasSql.cantidad(1));
+        mockMvc.perform(get("/api/v1/usuarios/{id}", id))
+            .andExpect(status().isOk())
+            .andExpect(SentenciasSql.cantidad(0));
+    }
+
+    @Test
+    void listarUsuariosEsUnaSolaConsulta() throws Exception {
+        crear(nuevoEmail());
+
+        mockMvc.perform(get("/api/v1/usuarios").param("limit", "5"))
+            .andExpect(status().isOk())
+            .andExpect(SentenciasSql.cantidad(1));
+    }
+
+    @Test
+    void actualizarUsuario() throws Exception {
+        long id = crear(nuevoEmail());
+
+        mockMvc.perform(put("/api/v1/usuarios/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nombre\": \"Andrea\"}"))
+            .andExpect(status().isOk())
+            // select + update
+            .andExpect(SentenciasSql.cantidad(2));
+    }
+
+    @Test
+    void eliminarUsuario() throws Exception {
+        long id = crear(nuevoEmail());
+
+        mockMvc.perform(delete("/api/v1/usuarios/{id}", id))
+            .andExpect(status().isOk())
+            // Un único DELETE ... WHERE id = ?
+            .andExpect(SentenciasSql.cantidad(1));
+        mockMvc.perform(delete("/api/v1/usuarios/{id}", id))
+            .andExpect(status().isNotFound())
+            .andExpect(SentenciasSql.cantidad(1));
+    }
+
+    @Test
+    void actualizarParcialmenteEsUnSoloUpdate() throws Exception {
+        long id = crear(nuevoEmail());
+
+        mockMvc.perform(patch("/api/v1/usuarios/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"telefono\": \"987654321\"}"))
+            .andExpect(status().isNoContent())
+            .andExpect(SentenciasSql.cantidad(1));
+        mockMvc.perform(get("/api/v1/usuarios/{id}", id))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.telefono").value("987654321"))
+            .andExpect(jsonPath("$.nombre").value("Ana"));
+        mockMvc.perform(patch("/api/v1/usuarios/{id}", id + 1000)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"telefono\": \"987654321\"}"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void correoDeOtroUsuarioEnPatchEsErrorDeValidacion() throws Exception {
+        String registrado = nuevoEmail();
+        crear(registrado);
+        long id = crear(nuevoEmail());
+
+        // Llega al índice único (el PATCH no consulta antes el correo)
+        mockMvc.perform(patch("/api/v1/usuarios/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\": \"" + registrado + "\"}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.detalles").value("El correo ingresado ya esta registrado"));
+    }
+
+    @Test
+    void correoDeOtroUsuarioEnPutEsErrorDeValidacion() throws Exception {
+        String registrado = nuevoEmail();
+        crear(registrado);
+        long id = crear(nuevoEmail());
+
+        // El índice único lo rechaza al hacer flush en el commit
+        mockMvc.perform(put("/api/v1/usuarios/{id}", id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\": \"" + registrado + "\"}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.detalles").value("El correo ingresado ya esta registrado"));
+    }
+
+    @Test
+    void exportarEntregaUnaLineaPorUsuario() throws Exception {
+        String email = nuevoEmail();
+        crear(email);
+
+        MvcResult resultado = mockMvc.perform(get("/api/v1/usuarios/exportar"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(resultado))
+            .andExpect(status().isOk())
+            .andExpect(content().string(containsString("\"email\":\"" + email + "\"")));
+    }
+
+    @Test
+    void importarHasheaEnElPoolYResumeLosRechazos() throws Exception {
+        String email = nuevoEmail();
+        String cuerpo = "[" + usuarioJson(email) + "," + usuarioJson(email) + ","
+            + usuarioJson("no-es-correo") + "," + usuarioJson(nuevoEmail()) + "]";
+
+        mockMvc.perform(post("/api/v1/usuarios/importar")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(cuerpo))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.procesados").value(4))
+            .andExpect(jsonPath("$.creados").value(2))
+            .andExpect(jsonPath("$.rechazados").value(2))
+            .andExpect(jsonPath("$.errores[0].fila").value(2));
+        mockMvc.perform(post("/api/v1/usuarios/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\": \"" + email + "\", \"contrasenia\": \"secreta123\"}"))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void login() throws Exception {
+        String email = nuevoEmail();
+        crear(email);
+
+        mockMvc.perform(post("/api/v1/usuarios/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\": \"" + email + "\", \"contrasenia\": \"secreta123\"}"))
+            .andExpect(status().isOk())
+            .andExpect(SentenciasSql.cantidad(1));
+    }
+
+    @Test
+    void unaContraseniaDeMasDe72BytesEsErrorDeValidacion() throws Exception {
+        String email = nuevoEmail();
+        mockMvc.perform(post("/api/v1/usuarios")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(usuarioJson(email).replace("secreta123", "ñ".repeat(40))))
+            .andExpect(status().isBadRequest())
+            .andExpect(content().string(containsString("72 bytes")));
+
+        crear(email);
+        mockMvc.perform(post("/api/v1/usuarios/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\": \"" + email + "\", \"contrasenia\": \"" + "a".repeat(100) + "\"}"))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void ifNoneMatchConLaVersionActualResponde304SinConsultas() throws Exception {
+        long id = crear(nuevoEmail());
+        String etag = mockMvc.perform(get("/api/v1/usuarios/{id}", id))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/usuarios/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""))
+            .andExpect(SentenciasSql.cantidad(0));
+    }
+
+    @Test
+    void ifMatchDesactualizadoResponde412() throws Exception {
+        long id = crear(nuevoEmail());
+        String etag = mockMvc.perform(get("/api/v1/usuarios/{id}", id))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(put("/api/v1/usuarios/{id}", id)
+                .header(HttpHeaders.IF_MATCH, etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nombre\": \"Andrea\"}"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+
+        mockMvc.perform(put("/api/v1/usuarios/{id}", id)
+                .header(HttpHeaders.IF_MATCH, etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nombre\": \"Beatriz\"}"))
+            .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(patch("/api/v1/usuarios/{id}", id)
+                .header(HttpHeaders.IF_MATCH, etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nombre\": \"Beatriz\"}"))
+            .andExpect(status().isPreconditionFailed());
+        mockMvc.perform(get("/api/v1/usuarios/{id}", id))
+            .andExpect(jsonPath("$.nombre").value("Andrea"));
+    }
+
+    @Test
+    void buscarFiltraPorRegionComunaYPrefijoDelNombre() throws Exception {
+        String region = "Region " + SECUENCIA.incrementAndGet();
+        long primero = crearDesdeJson(usuarioJson(nuevoEmail(), "Camila", region, "Maipu"));
+        long segundo = crearDesdeJson(usuarioJson(nuevoEmail(), "Carla", region, "Maipu"));
+        crearDesdeJson(usuarioJson(nuevoEmail(), "Carla", region, "Nunoa"));
+        crearDesdeJson(usuarioJson(nuevoEmail(), "Diego", region, "Maipu"));
+
+        mockMvc.perform(get("/api/v1/usuarios/buscar")
+                .param("region", region).param("comuna", "Maipu").param("nombre", "Ca").param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$._embedded.usuarioList.length()").value(1))
+            .andExpect(jsonPath("$._embedded.usuarioList[0].id").value(primero))
+            .andExpect(jsonPath("$._links.next.href").value(containsString("comuna=Maipu")))
+            .andExpect(jsonPath("$._links.next.href").value(containsString("after=" + primero)))
+            .andExpect(SentenciasSql.cantidad(1));
+
+        mockMvc.perform(get("/api/v1/usuarios/buscar")
+                .param("region", region).param("comuna", "Maipu").param("nombre", "Ca")
+                .param("after", String.valueOf(primero)).param("limit", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$._embedded.usuarioList[0].id").value(segundo))
+            .andExpect(jsonPath("$._links.next").doesNotExist());
+
+        // Los comodines de LIKE se buscan literalmente
+        mockMvc.perform(get("/api/v1/usuarios/buscar").param("region", region).param("nombre", "%"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$._embedded").doesNotExist());
+    }
+
+    @Test
+    void loteDeIdsEsUnaSolaConsulta() throws Exception {
+        long primero = crear(nuevoEmail());
+        long segundo = crear(nuevoEmail());
+
+        mockMvc.perform(get("/api/v1/usuarios/lote").param("ids", primero + "," + segundo))
+            .andExpect(status().isOk())
+            .andExpect(SentenciasSql.comoMaximo(1));
+    }
+}
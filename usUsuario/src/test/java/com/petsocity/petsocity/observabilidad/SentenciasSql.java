@@ -0,0 +1,32 @@
+package com.petsocity.petsocity.observabilidad;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+/**
+ * Matchers de MockMvc sobre la cantidad de sentencias SQL que emitió la solicitud
+ * (medidas por {@link ContadorSentenciasSqlFilter}).
+ */
+public final class SentenciasSql {
+
+    private SentenciasSql() {
+    }
+
+    public static ResultMatcher cantidad(int esperadas) {
+        return resultado -> assertThat(leer(resultado.getRequest().getAttribute(ContadorSentenciasSqlFilter.ATRIBUTO)))
+            .as("sentencias SQL de %s %s", resultado.getRequest().getMethod(), resultado.getRequest().getRequestURI())
+            .isEqualTo(esperadas);
+    }
+
+    public static ResultMatcher comoMaximo(int maximo) {
+        return resultado -> assertThat(leer(resultado.getRequest().getAttribute(ContadorSentenciasSqlFilter.ATRIBUTO)))
+            .as("sentencias SQL de %s %s", resultado.getRequest().getMethod(), resultado.getRequest().getRequestURI())
+            .isLessThanOrEqualTo(maximo);
+    }
+
+    private static int leer(Object atributo) {
+        assertThat(atributo).as("la solicitud no pasó por ContadorSentenciasSqlFilter").isInstanceOf(Integer.class);
+        return (Integer) atributo;
+    }
+}
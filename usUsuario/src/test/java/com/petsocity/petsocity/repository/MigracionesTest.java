@@ -0,0 +1,73 @@
+package com.petsocity.petsocity.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Migraciones sobre BD H2 que quedaron en V1 (el esquema de ddl-auto=update): con datos que
+ * no caben en las columnas acotadas por V2, y con el índice del correo nombrado por Hibernate.
+ */
+class MigracionesTest {
+
+    private static final String URL = "jdbc:h2:mem:migraciones;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void v2NoCorreSiHayFilasMasLargasQueLasColumnasAcotadas() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        Flyway.configure().dataSource(dataSource).target("1").load().migrate();
+        jdbc.update("insert into usuario (nombre, apellido, email, contrasenia, telefono, direccion, region, comuna)"
+            + " values (?, 'Perez', 'largo@correo.cl', 'x', ?, 'Calle 1', 'RM', 'Santiago')",
+            "N".repeat(101), "9".repeat(21));
+        jdbc.update("insert into usuario (nombre, apellido, email, contrasenia, telefono, direccion, region, comuna)"
+            + " values ('Ana', 'Perez', 'corto@correo.cl', 'x', '912345678', 'Calle 1', 'RM', 'Santiago')");
+
+        Flyway flyway = Flyway.configure().dataSource(dataSource).load();
+        assertThatThrownBy(flyway::migrate)
+            .isInstanceOf(FlywayException.class)
+            .rootCause()
+            .hasMessageContaining("nombre (1 filas")
+            .hasMessageContaining("telefono (1 filas")
+            .hasMessageNotContaining("apellido");
+        assertThat(jdbc.queryForObject("select char_length(nombre) from usuario where email = 'largo@correo.cl'",
+            Integer.class)).isEqualTo(101);
+
+        jdbc.update("update usuario set nombre = 'Juan', telefono = '912345678' where email = 'largo@correo.cl'");
+        // La verificación queda registrada como fallida: repair la quita y se vuelve a migrar
+        flyway.repair();
+        flyway.migrate();
+
+        assertThat(jdbc.queryForObject("select count(*) from usuario", Integer.class)).isEqualTo(2);
+        assertThat(flyway.info().pending()).isEmpty();
+    }
+
+    @Test
+    void unaBdCreadaPorHibernateQuedaConElIndiceDelCorreoRenombrado() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:migraciones_hibernate;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        // Como la dejaba ddl-auto=update: el índice único con el nombre generado por Hibernate
+        jdbc.execute("create table usuario (id bigint not null auto_increment, nombre varchar(255) not null,"
+            + " apellido varchar(255) not null, email varchar(255) not null, contrasenia varchar(255) not null,"
+            + " telefono varchar(255) not null, direccion varchar(255) not null, region varchar(255) not null,"
+            + " comuna varchar(255) not null, fecha_creacion datetime(6), primary key (id),"
+            + " constraint UK5171l57faosmj8myawaucatdw unique (email))");
+
+        Flyway.configure().dataSource(dataSource).baselineOnMigrate(true).baselineVersion("1").load().migrate();
+
+        String insertar = "insert into usuario (nombre, apellido, email, contrasenia, telefono, direccion, region, comuna)"
+            + " values ('Ana', 'Perez', 'ana@correo.cl', 'x', '912345678', 'Calle 1', 'RM', 'Santiago')";
+        jdbc.update(insertar);
+        assertThatThrownBy(() -> jdbc.update(insertar))
+            .isInstanceOf(DuplicateKeyException.class)
+            .rootCause()
+            .hasMessageContaining("uk_usuario_email");
+    }
+}
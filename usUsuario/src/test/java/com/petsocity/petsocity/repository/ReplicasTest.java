@@ -0,0 +1,175 @@
+package com.petsocity.petsocity.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.Map;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Ruteo a réplicas con dos BD H2 en memoria: la primaria (migrada por la aplicación) y una
+ * réplica con el mismo esquema pero sin replicación, de modo que se ve a cuál fue cada
+ * consulta. La segunda réplica configurada no existe y debe quedar fuera.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=" + ReplicasTest.URL_PRIMARIA,
+    "replicas.urls=" + ReplicasTest.URL_REPLICA + "," + ReplicasTest.URL_CAIDA,
+    "replicas.username=sa",
+    "replicas.password="
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class ReplicasTest {
+
+    static final String URL_PRIMARIA = "jdbc:h2:mem:replicas_primaria;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String URL_REPLICA = "jdbc:h2:mem:replicas_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String URL_CAIDA = "jdbc:h2:tcp://127.0.0.1:1/caida";
+
+    private static final JdbcTemplate REPLICA = replica();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate primaria;
+
+    @Autowired
+    private ReplicasDataSource replicas;
+
+    private static JdbcTemplate replica() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(URL_REPLICA, "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        return new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void lasLecturasVanALaReplicaDisponible() throws Exception {
+        REPLICA.update("insert into usuario (nombre, apellido, email, contrasenia, telefono, direccion, region, comuna,"
+            + " fecha_creacion, version) values ('Replicada', 'Rojas', 'replicada@petsocity.cl', 'x', '912345678',"
+            + " 'Calle 1', 'RM', 'Santiago', current_timestamp, 0)");
+
+        mockMvc.perform(get("/api/v1/usuarios/buscar").param("nombre", "Replicada"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$._embedded.usuarioList", hasSize(1)));
+        assertThat(contar(primaria, "replicada@petsocity.cl")).isZero();
+        assertThat(replicas.disponibles()).isEqualTo(1);
+    }
+
+    @Test
+    void loEscritoVaALaPrimariaYSeLeeDesdeAhi() throws Exception {
+        String respuesta = mockMvc.perform(post("/api/v1/usuarios")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"nombre": "Primaria", "apellido": "Rojas", "email": "primaria@petsocity.cl", "contrasenia": "secreta123",
+                     "telefono": "912345678", "direccion": "Calle 1", "region": "RM", "comuna": "Santiago"}
+                    """))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(respuesta).get("id").asLong();
+
+        assertThat(contar(primaria, "primaria@petsocity.cl")).isOne();
+        assertThat(contar(REPLICA, "primaria@petsocity.cl")).isZero();
+
+        // Recién creado: la lectura por id y el login van a la primaria aunque la réplica no lo tenga
+        mockMvc.perform(get("/api/v1/usuarios/{id}", id))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.email").value("primaria@petsocity.cl"));
+        mockMvc.perform(post("/api/v1/usuarios/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\": \"primaria@petsocity.cl\", \"contrasenia\": \"secreta123\"}"))
+            .andExpect(status().isOk());
+
+        // La búsqueda no es por usuario: la responde la réplica, que todavía no lo tiene
+        mockMvc.perform(get("/api/v1/usuarios/buscar").param("nombre", "Primaria"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$._embedded").doesNotExist());
+    }
+
+    @Test
+    void patchConIfMatchViejoSobreUnAltaRecienteEs412() throws Exception {
+        String respuesta = mockMvc.perform(post("/api/v1/usuarios")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"nombre": "Reciente", "apellido": "Rojas", "email": "reciente@petsocity.cl", "contrasenia": "secreta123",
+                     "telefono": "912345678", "direccion": "Calle 1", "region": "RM", "comuna": "Santiago"}
+                    """))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(respuesta).get("id").asLong();
+
+        // El UPDATE no aplica por la versión; la réplica aún no tiene la fila, pero la
+        // existencia se consulta en la primaria: conflicto de versión, no 404
+        mockMvc.perform(patch("/api/v1/usuarios/{id}", id)
+                .header(HttpHeaders.IF_MATCH, "\"7\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nombre\": \"Otra\"}"))
+            .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void loImportadoSeLeeDesdeLaPrimaria() throws Exception {
+        mockMvc.perform(post("/api/v1/usuarios/importar")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    [{"nombre": "Importada", "apellido": "Rojas", "email": "importada@petsocity.cl", "contrasenia": "secreta123",
+                      "telefono": "912345678", "direccion": "Calle 1", "region": "RM", "comuna": "Santiago"}]
+                    """))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.creados").value(1));
+        long id = primaria.queryForObject("select id from usuario where email = 'importada@petsocity.cl'", Long.class);
+        assertThat(contar(REPLICA, "importada@petsocity.cl")).isZero();
+
+        // Como en un alta individual, el id y el correo importados se leen desde la primaria
+        mockMvc.perform(get("/api/v1/usuarios/{id}", id))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.email").value("importada@petsocity.cl"));
+        mockMvc.perform(post("/api/v1/usuarios/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\": \"importada@petsocity.cl\", \"contrasenia\": \"secreta123\"}"))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void sinReplicasDisponiblesSeUsaLaPrimaria() throws Exception {
+        HikariDataSource caida = new HikariDataSource();
+        caida.setJdbcUrl(URL_CAIDA);
+        caida.setConnectionTimeout(250);
+        caida.setInitializationFailTimeout(-1);
+        DriverManagerDataSource primariaDirecta = new DriverManagerDataSource(URL_PRIMARIA, "sa", "");
+
+        try (ReplicasDataSource soloCaida = new ReplicasDataSource(primariaDirecta, Map.of("caida", caida), Duration.ZERO)) {
+            try (Connection conexion = soloCaida.getConnection()) {
+                assertThat(conexion.getMetaData().getURL()).contains("replicas_primaria");
+            }
+            assertThat(soloCaida.disponibles()).isZero();
+        }
+    }
+
+    private static int contar(JdbcTemplate jdbc, String email) {
+        return jdbc.queryForObject("select count(*) from usuario where email = ?", Integer.class, email);
+    }
+}
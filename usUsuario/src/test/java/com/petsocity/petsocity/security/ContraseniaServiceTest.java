@@ -0,0 +1,74 @@
+package com.petsocity.petsocity.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Las importaciones comparten los cupos de lote del pool de contraseñas: varias a la vez no
+ * ocupan más de la mitad de los hilos y los logins siguen entrando.
+ */
+class ContraseniaServiceTest {
+
+    // 2 hilos: 1 cupo para todos los lotes y 1 siempre libre para verificar; sin cache de
+    // credenciales, cada login paga su bcrypt
+    private final ContraseniaService servicio =
+        new ContraseniaService(8, 2, 64, Duration.ofSeconds(2), Duration.ofSeconds(60), 0);
+
+    @AfterEach
+    void detener() {
+        servicio.destroy();
+    }
+
+    @Test
+    void dosImportacionesALaVezDejanUnHiloParaLosLogins() throws Exception {
+        String almacenada = servicio.hashear("secreta123");
+        List<String> lote = Collections.nCopies(80, "importada123");
+
+        CompletableFuture<List<String>> primera = CompletableFuture.supplyAsync(() -> servicio.hashearLote(lote));
+        CompletableFuture<List<String>> segunda = CompletableFuture.supplyAsync(() -> servicio.hashearLote(lote));
+
+        // Sólo importaciones: entre las dos ocupan un hilo. Los dos hilos se ven ocupados a la
+        // vez sólo en el relevo (el cupo se libera al terminar el hash, antes de que el hilo quede
+        // libre); con un cupo por importación estarían ocupados casi siempre
+        int muestras = 0;
+        int ambosOcupados = 0;
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300);
+        while (System.nanoTime() < limite) {
+            muestras++;
+            if (servicio.getVerificadores().getActiveCount() == 2) {
+                ambosOcupados++;
+            }
+            Thread.sleep(1);
+        }
+        assertThat(ambosOcupados).isLessThan(muestras / 2);
+
+        List<Boolean> logins = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            logins.add(servicio.verificar("secreta123", almacenada));
+        }
+        assertThat(primera).isNotDone();
+        assertThat(logins).containsOnly(true);
+
+        assertThat(primera.get(30, TimeUnit.SECONDS)).hasSize(80).allMatch(servicio::esHash);
+        assertThat(segunda.get(30, TimeUnit.SECONDS)).hasSize(80).allMatch(servicio::esHash);
+    }
+
+    @Test
+    void conUnSoloHiloConfiguradoQuedaUnoLibreParaLosLogins() {
+        ContraseniaService unHilo = new ContraseniaService(4, 1, 64, Duration.ofSeconds(2), Duration.ofSeconds(60), 0);
+        try {
+            assertThat(unHilo.getVerificadores().getMaximumPoolSize()).isEqualTo(2);
+        } finally {
+            unHilo.destroy();
+        }
+    }
+}
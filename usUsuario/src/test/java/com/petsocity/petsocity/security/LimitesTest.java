@@ -0,0 +1,134 @@
+package com.petsocity.petsocity.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.matchesRegex;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.petsocity.petsocity.observabilidad.SentenciasSql;
+
+@SpringBootTest(properties = {
+    "limites.habilitado=true",
+    "limites.login-ip.capacidad=5",
+    "limites.login-correo.capacidad=3",
+    "limites.registro-ip.capacidad=2"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class LimitesTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void elBaldeAdmiteLaRafagaYRecuperaUnaSolicitudPorIntervalo() {
+        AtomicLong ahora = new AtomicLong();
+        LimitadorTasa limitador = new LimitadorTasa(3, Duration.ofSeconds(10), 1000, ahora::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limitador.intentar("a")).isZero();
+        }
+        assertThat(limitador.intentar("a")).isEqualTo(Duration.ofSeconds(10));
+        assertThat(limitador.intentar("b")).isZero();
+
+        ahora.addAndGet(Duration.ofSeconds(4).toNanos());
+        assertThat(limitador.intentar("a")).isEqualTo(Duration.ofSeconds(6));
+        ahora.addAndGet(Duration.ofSeconds(6).toNanos());
+        assertThat(limitador.intentar("a")).isZero();
+        assertThat(limitador.intentar("a")).isEqualTo(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void laMemoriaQuedaAcotadaYLasClavesInactivasSeDescartan() {
+        AtomicLong ahora = new AtomicLong();
+        LimitadorTasa limitador = new LimitadorTasa(2, Duration.ofSeconds(1), LimitadorTasa.FRANJAS * 4, ahora::get);
+
+        for (int i = 0; i < 10_000; i++) {
+            limitador.intentar("ip-" + i);
+        }
+        assertThat(limitador.claves()).isLessThanOrEqualTo(LimitadorTasa.FRANJAS * 4);
+
+        // Tras capacidad * intervalo sin uso cada balde estaría lleno: se olvida al tocar su franja
+        ahora.addAndGet(Duration.ofSeconds(2).toNanos());
+        for (int i = 0; i < LimitadorTasa.FRANJAS * 8; i++) {
+            limitador.intentar("nueva-" + i);
+        }
+        assertThat(limitador.claves()).isLessThanOrEqualTo(LimitadorTasa.FRANJAS * 4);
+        assertThat(limitador.intentar("nueva-0")).isZero();
+    }
+
+    @Test
+    void losIntentosContraUnCorreoSeRechazanSinConsultarLaBd() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(login("10.0.0." + i, "victima@petsocity.cl"))
+                .andExpect(status().isUnauthorized());
+        }
+        mockMvc.perform(login("10.0.0.9", "victima@petsocity.cl"))
+            .andExpect(status().isTooManyRequests())
+            // Falta casi un intervalo (1m) para el próximo intento
+            .andExpect(header().string(HttpHeaders.RETRY_AFTER, matchesRegex("5\\d|60")))
+            .andExpect(SentenciasSql.cantidad(0));
+    }
+
+    @Test
+    void unaIpSeLimitaAunqueCambieElCorreo() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(login("10.1.0.1", "otro" + i + "@petsocity.cl"))
+                .andExpect(status().isUnauthorized());
+        }
+        mockMvc.perform(login("10.1.0.1", "otro9@petsocity.cl"))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        mockMvc.perform(login("10.1.0.2", "otro9@petsocity.cl"))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void elRegistroSeLimitaPorIp() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(registro("10.2.0.1", "registro" + i + "@petsocity.cl"))
+                .andExpect(status().isCreated());
+        }
+        mockMvc.perform(registro("10.2.0.1", "registro2@petsocity.cl"))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().string(HttpHeaders.RETRY_AFTER, matchesRegex("2\\d|30")))
+            .andExpect(SentenciasSql.cantidad(0));
+    }
+
+    private static MockHttpServletRequestBuilder login(String ip, String email) {
+        return post("/api/v1/usuarios/login")
+            .with(request -> {
+                request.setRemoteAddr(ip);
+                return request;
+            })
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"email\": \"" + email + "\", \"contrasenia\": \"incorrecta\"}");
+    }
+
+    private static MockHttpServletRequestBuilder registro(String ip, String email) {
+        return post("/api/v1/usuarios")
+            .with(request -> {
+                request.setRemoteAddr(ip);
+                return request;
+            })
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("""
+                {"nombre": "Ana", "apellido": "Rojas", "email": "%s", "contrasenia": "secreta123",
+                 "telefono": "912345678", "direccion": "Calle 1", "region": "RM", "comuna": "Santiago"}
+                """.formatted(email));
+    }
+}
@@ -0,0 +1,186 @@
+package com.petsocity.petsocity.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.petsocity.petsocity.model.ResumenUsuario;
+import com.petsocity.petsocity.observabilidad.SentenciasSql;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class TokenSesionTest {
+
+    private static final byte[] CLAVE_1 = "clave-de-pruebas-numero-1-de-32-bytes".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] CLAVE_2 = "clave-de-pruebas-numero-2-de-32-bytes".getBytes(StandardCharsets.UTF_8);
+    private static final ResumenUsuario ANA = new ResumenUsuario(7L, "Ana", "ana@petsocity.cl");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void elTokenDelLoginSeVerificaSinConsultarLaBd() throws Exception {
+        long id = crear("sesion@petsocity.cl");
+        JsonNode login = login("sesion@petsocity.cl");
+        String token = login.get("token").asText();
+        assertThat(login.get("expiraEn").asLong()).isEqualTo(900);
+
+        mockMvc.perform(get("/api/v1/usuarios/sesion").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(id))
+            .andExpect(jsonPath("$.correo").value("sesion@petsocity.cl"))
+            .andExpect(SentenciasSql.cantidad(0));
+
+        mockMvc.perform(get("/api/v1/usuarios/sesion"))
+            .andExpect(status().isUnauthorized());
+        String alterado = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        mockMvc.perform(get("/api/v1/usuarios/sesion").header(HttpHeaders.AUTHORIZATION, "Bearer " + alterado))
+            .andExpect(status().isUnauthorized())
+            .andExpect(header().string(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\""));
+    }
+
+    @Test
+    void laRenovacionReleeElUsuarioYFallaSiFueEliminado() throws Exception {
+        long id = crear("renovar@petsocity.cl");
+        String token = login("renovar@petsocity.cl").get("token").asText();
+
+        mockMvc.perform(post("/api/v1/usuarios/sesion/renovar").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.token").isNotEmpty());
+
+        mockMvc.perform(delete("/api/v1/usuarios/{id}", id)).andExpect(status().isOk());
+        mockMvc.perform(post("/api/v1/usuarios/sesion/renovar").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void expiraYSeRenuevaSoloDentroDeLaGraciaYLaDuracionMaxima() {
+        RelojManual reloj = new RelojManual();
+        TokenSesionService servicio = servicio(claves("k1", CLAVE_1), reloj);
+        Instant login = reloj.instant();
+        String token = servicio.emitir(ANA);
+
+        reloj.avanzar(Duration.ofMinutes(16));
+        assertThatThrownBy(() -> servicio.verificar(token)).isInstanceOf(TokenSesionInvalidoException.class);
+        String renovado = servicio.renovar(token, id -> ANA);
+        assertThat(servicio.verificar(renovado).getInicio()).isEqualTo(login);
+
+        reloj.avanzar(Duration.ofMinutes(21));
+        assertThatThrownBy(() -> servicio.renovar(renovado, id -> ANA)).isInstanceOf(TokenSesionInvalidoException.class);
+
+        // Renovando a tiempo la sesión igual termina en la duración máxima (1h)
+        String vigente = servicio.emitir(ANA);
+        Instant inicio = servicio.verificar(vigente).getInicio();
+        for (int i = 0; i < 4; i++) {
+            reloj.avanzar(Duration.ofMinutes(14));
+            vigente = servicio.renovar(vigente, id -> ANA);
+        }
+        assertThat(servicio.verificar(vigente).getExpira()).isEqualTo(inicio.plus(Duration.ofHours(1)));
+        reloj.avanzar(Duration.ofMinutes(6));
+        String ultimo = vigente;
+        assertThatThrownBy(() -> servicio.renovar(ultimo, id -> ANA)).isInstanceOf(TokenSesionInvalidoException.class);
+    }
+
+    @Test
+    void rotarClavesMantieneLosTokensDeLaClaveAnterior() {
+        RelojManual reloj = new RelojManual();
+        String anterior = servicio(claves("k1", CLAVE_1), reloj).emitir(ANA);
+
+        Map<String, byte[]> rotadas = claves("k2", CLAVE_2);
+        rotadas.put("k1", CLAVE_1);
+        TokenSesionService rotado = servicio(rotadas, reloj);
+        assertThat(rotado.verificar(anterior).getEmail()).isEqualTo("ana@petsocity.cl");
+        String nuevo = rotado.emitir(ANA);
+
+        // Un servicio que sólo conoce la clave anterior no acepta los tokens de la nueva
+        VerificadorTokenSesion soloAnterior = new VerificadorTokenSesion(claves("k1", CLAVE_1), objectMapper, reloj);
+        assertThatThrownBy(() -> soloAnterior.verificar(nuevo)).isInstanceOf(TokenSesionInvalidoException.class);
+        assertThat(new VerificadorTokenSesion(claves("k2", CLAVE_2), objectMapper, reloj).verificar(nuevo).getId())
+            .isEqualTo(7L);
+    }
+
+    private TokenSesionService servicio(Map<String, byte[]> claves, Clock reloj) {
+        return new TokenSesionService(objectMapper, claves, Duration.ofMinutes(15), Duration.ofHours(1),
+            Duration.ofMinutes(5), reloj);
+    }
+
+    private static Map<String, byte[]> claves(String kid, byte[] clave) {
+        Map<String, byte[]> claves = new LinkedHashMap<>();
+        claves.put(kid, clave);
+        return claves;
+    }
+
+    private long crear(String email) throws Exception {
+        String respuesta = mockMvc.perform(post("/api/v1/usuarios")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("""
+                    {"nombre": "Ana", "apellido": "Rojas", "email": "%s", "contrasenia": "secreta123",
+                     "telefono": "912345678", "direccion": "Calle 1", "region": "RM", "comuna": "Santiago"}
+                    """.formatted(email)))
+            .andExpect(status().isCreated())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(respuesta).get("id").asLong();
+    }
+
+    private JsonNode login(String email) throws Exception {
+        String respuesta = mockMvc.perform(post("/api/v1/usuarios/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\": \"" + email + "\", \"contrasenia\": \"secreta123\"}"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(respuesta);
+    }
+
+    private static final class RelojManual extends Clock {
+
+        private Instant ahora = Instant.parse("2025-01-01T12:00:00Z");
+
+        void avanzar(Duration tiempo) {
+            ahora = ahora.plus(tiempo);
+        }
+
+        @Override
+        public Instant instant() {
+            return ahora;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
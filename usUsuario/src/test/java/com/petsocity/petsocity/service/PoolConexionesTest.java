@@ -0,0 +1,162 @@
+package com.petsocity.petsocity.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.sun.net.httpserver.HttpServer;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+/**
+ * Con el microservicio de ubicaciones lento, las solicitudes que lo esperan no retienen
+ * conexiones de Hikari y los logins siguen respondiendo con el pool casi vacío.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class PoolConexionesTest {
+
+    private static final long RETARDO_UPSTREAM_MS = 1500;
+    private static final int ESPERANDO_UBICACIONES = 8;
+    private static final int LOGINS = 5;
+
+    private static final HttpServer UPSTREAM = upstreamLento();
+    private static final AtomicInteger LLAMADAS_UPSTREAM = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private static HttpServer upstreamLento() {
+        try {
+            HttpServer servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            servidor.setExecutor(Executors.newCachedThreadPool());
+            servidor.createContext("/api/ubicaciones", intercambio -> {
+                LLAMADAS_UPSTREAM.incrementAndGet();
+                try {
+                    Thread.sleep(RETARDO_UPSTREAM_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] cuerpo = "[\"Santiago\"]".getBytes(StandardCharsets.UTF_8);
+                intercambio.getResponseHeaders().add("Content-Type", "application/json");
+                intercambio.sendResponseHeaders(200, cuerpo.length);
+                try (OutputStream salida = intercambio.getResponseBody()) {
+                    salida.write(cuerpo);
+                }
+            });
+            servidor.start();
+            return servidor;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void propiedades(DynamicPropertyRegistry registro) {
+        registro.add("ubicaciones.url-base",
+            () -> "http://127.0.0.1:" + UPSTREAM.getAddress().getPort() + "/api/ubicaciones");
+        registro.add("ubicaciones.espera", () -> "10s");
+        // Las llamadas lentas tienen que estar todas en curso a la vez
+        registro.add("ubicaciones.executor.hilos", () -> String.valueOf(ESPERANDO_UBICACIONES));
+        registro.add("http-cliente.timeout-lectura", () -> "10s");
+    }
+
+    @AfterAll
+    static void detenerUpstream() {
+        UPSTREAM.stop(0);
+    }
+
+    @Test
+    void esperarAlUpstreamNoRetieneConexionesDelPool() throws Exception {
+        for (int i = 0; i < LOGINS; i++) {
+            mockMvc.perform(post("/api/v1/usuarios")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(usuarioJson(i)))
+                .andExpect(status().isCreated());
+        }
+        HikariPoolMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+
+        ExecutorService hilos = Executors.newCachedThreadPool();
+        AtomicInteger maximoActivas = new AtomicInteger();
+        CountDownLatch fin = new CountDownLatch(1);
+        try {
+            hilos.submit(() -> {
+                while (fin.getCount() > 0) {
+                    maximoActivas.accumulateAndGet(pool.getActiveConnections(), Math::max);
+                    LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(200));
+                }
+            });
+
+            // Cada código es una clave distinta: una llamada lenta al upstream por solicitud
+            List<Future<Integer>> ubicaciones = new ArrayList<>();
+            for (int i = 0; i < ESPERANDO_UBICACIONES; i++) {
+                String codigo = "R" + i;
+                ubicaciones.add(hilos.submit(() -> mockMvc.perform(get("/api/v1/usuarios/regiones/{codigo}/comunas", codigo))
+                    .andReturn().getResponse().getStatus()));
+            }
+            while (LLAMADAS_UPSTREAM.get() < ESPERANDO_UBICACIONES) {
+                Thread.sleep(10);
+            }
+
+            // Mientras tanto los logins (cada uno lee la BD) responden sin esperar al upstream
+            long inicio = System.nanoTime();
+            for (int i = 0; i < LOGINS; i++) {
+                mockMvc.perform(post("/api/v1/usuarios/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\": \"pool" + i + "@petsocity.cl\", \"contrasenia\": \"secreta123\"}"))
+                    .andExpect(status().isOk());
+            }
+            long loginsMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+            assertThat(ubicaciones).noneMatch(Future::isDone);
+
+            for (Future<Integer> respuesta : ubicaciones) {
+                assertThat(respuesta.get(10, TimeUnit.SECONDS)).isEqualTo(200);
+            }
+            assertThat(loginsMs).isLessThan(RETARDO_UPSTREAM_MS);
+        } finally {
+            fin.countDown();
+            hilos.shutdownNow();
+        }
+        // Sólo el login en curso usa una conexión; las solicitudes a ubicaciones, ninguna
+        assertThat(maximoActivas.get()).isLessThanOrEqualTo(1);
+    }
+
+    private static String usuarioJson(int i) {
+        return """
+            {"nombre": "Ana", "apellido": "Rojas", "email": "pool%d@petsocity.cl", "contrasenia": "secreta123",
+             "telefono": "912345678", "direccion": "Calle 1", "region": "RM", "comuna": "Santiago"}
+            """.formatted(i);
+    }
+}
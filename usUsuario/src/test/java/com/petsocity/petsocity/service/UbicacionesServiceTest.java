@@ -0,0 +1,259 @@
+package com.petsocity.petsocity.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+
+/**
+ * Prueba UbicacionesService contra un servidor HTTP local que simula el microservicio
+ * de ubicaciones, con un reloj manual para controlar el vencimiento del cache.
+ */
+class UbicacionesServiceTest {
+
+    private static final Duration TTL = Duration.ofMinutes(60);
+    private static final Duration REVALIDACION = Duration.ofHours(24);
+
+    private HttpServer servidor;
+    private ExecutorService executor;
+    private RelojManual reloj;
+    private CircuitBreaker circuitBreaker;
+    private String urlBase;
+
+    private final AtomicInteger llamadas = new AtomicInteger();
+    private volatile String respuesta = "[\"v1\"]";
+    private volatile int estado = 200;
+    private volatile long retardoMillis;
+    private volatile CountDownLatch liberar;
+
+    @TempDir
+    Path directorioSnapshot;
+
+    @BeforeEach
+    void iniciarServidor() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.setExecutor(Executors.newCachedThreadPool());
+        servidor.createContext("/api/ubicaciones", intercambio -> {
+            llamadas.incrementAndGet();
+            try {
+                if (liberar != null) {
+                    liberar.await(10, TimeUnit.SECONDS);
+                }
+                if (retardoMillis > 0) {
+                    Thread.sleep(retardoMillis);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] cuerpo = respuesta.getBytes(StandardCharsets.UTF_8);
+            intercambio.getResponseHeaders().add("Content-Type", "application/json");
+            intercambio.sendResponseHeaders(estado, cuerpo.length);
+            try (OutputStream salida = intercambio.getResponseBody()) {
+                salida.write(cuerpo);
+            }
+        });
+        servidor.start();
+        urlBase = "http://127.0.0.1:" + servidor.getAddress().getPort() + "/api/ubicaciones";
+        executor = Executors.newCachedThreadPool();
+        reloj = new RelojManual();
+        circuitBreaker = CircuitBreaker.ofDefaults("ubicaciones");
+    }
+
+    @AfterEach
+    void detenerServidor() {
+        servidor.stop(0);
+        executor.shutdownNow();
+    }
+
+    private UbicacionesService nuevoServicio(Duration espera) {
+        return new UbicacionesService(new RestTemplate(), urlBase, TTL, REVALIDACION, espera, 100, directorioSnapshot,
+            executor, circuitBreaker, Bulkhead.ofDefaults("ubicaciones"), reloj);
+    }
+
+    @Test
+    void respondeDesdeMemoriaDentroDelTtl() {
+        UbicacionesService servicio = nuevoServicio(Duration.ofSeconds(5));
+
+        assertThat(servicio.obtenerRegiones()).isEqualTo("[\"v1\"]");
+        reloj.avanzar(TTL.minusSeconds(1));
+        assertThat(servicio.obtenerRegiones()).isEqualTo("[\"v1\"]");
+
+        assertThat(llamadas).hasValue(1);
+    }
+
+    @Test
+    void consultasConcurrentesCompartenUnaLlamada() throws Exception {
+        UbicacionesService servicio = nuevoServicio(Duration.ofSeconds(5));
+        liberar = new CountDownLatch(1);
+
+        ExecutorService clientes = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<String>> resultados = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                resultados.add(clientes.submit(() -> servicio.obtenerComunas("13")));
+            }
+            Thread.sleep(200);
+            liberar.countDown();
+            for (Future<String> resultado : resultados) {
+                assertThat(resultado.get(5, TimeUnit.SECONDS)).isEqualTo("[\"v1\"]");
+            }
+        } finally {
+            clientes.shutdownNow();
+        }
+
+        assertThat(llamadas).hasValue(1);
+    }
+
+    @Test
+    void vencidoRespondeCopiaViejaYRefrescaEnSegundoPlano() throws Exception {
+        UbicacionesService servicio = nuevoServicio(Duration.ofSeconds(5));
+        servicio.obtenerRegiones();
+
+        reloj.avanzar(TTL.plusSeconds(1));
+        respuesta = "[\"v2\"]";
+        retardoMillis = 300;
+
+        long inicio = System.nanoTime();
+        assertThat(servicio.obtenerRegiones()).isEqualTo("[\"v1\"]");
+        assertThat(Duration.ofNanos(System.nanoTime() - inicio)).isLessThan(Duration.ofMillis(300));
+
+        esperarHasta(() -> "[\"v2\"]".equals(servicio.obtenerRegiones()));
+        assertThat(llamadas).hasValue(2);
+    }
+
+    @Test
+    void upstreamLentoUsaSnapshotLocal() {
+        nuevoServicio(Duration.ofSeconds(5)).obtenerComunas("13");
+
+        // Un proceso nuevo (sin copia en memoria) con el upstream lento
+        retardoMillis = 2_000;
+        UbicacionesService reiniciado = nuevoServicio(Duration.ofMillis(100));
+
+        assertThat(reiniciado.obtenerComunas("13")).isEqualTo("[\"v1\"]");
+    }
+
+    @Test
+    void upstreamCaidoSinCopiaLocalLanzaExcepcion() {
+        estado = 503;
+        UbicacionesService servicio = nuevoServicio(Duration.ofSeconds(5));
+
+        assertThatThrownBy(servicio::obtenerRegiones).isInstanceOf(UbicacionesNoDisponiblesException.class);
+    }
+
+    @Test
+    void circuitoAbiertoRespondeCopiaLocalSinLlamarAlUpstream() {
+        UbicacionesService servicio = nuevoServicio(Duration.ofSeconds(5));
+        servicio.obtenerRegiones();
+
+        reloj.avanzar(TTL.plus(REVALIDACION).plusSeconds(1));
+        circuitBreaker.transitionToOpenState();
+
+        assertThat(servicio.obtenerRegiones()).isEqualTo("[\"v1\"]");
+        assertThat(llamadas).hasValue(1);
+    }
+
+    @Test
+    void errorDelClienteSePropagaYNoSeCachea() {
+        estado = 404;
+        UbicacionesService servicio = nuevoServicio(Duration.ofSeconds(5));
+
+        assertThatThrownBy(() -> servicio.obtenerComunas("99")).isInstanceOf(HttpClientErrorException.NotFound.class);
+        assertThatThrownBy(() -> servicio.obtenerComunas("99")).isInstanceOf(HttpClientErrorException.NotFound.class);
+        assertThat(llamadas).hasValue(2);
+    }
+
+    @Test
+    void codigoInvalidoSeRechazaSinLlamarAlUpstream() {
+        UbicacionesService servicio = nuevoServicio(Duration.ofSeconds(5));
+
+        for (String codigo : new String[] {"../regiones", "13 ", "", "x".repeat(21), "13?a=b"}) {
+            assertThatThrownBy(() -> servicio.obtenerComunas(codigo)).isInstanceOf(IllegalArgumentException.class);
+        }
+        assertThat(llamadas).hasValue(0);
+    }
+
+    @Test
+    void conElPoolPropioLlenoFallaSinEsperarAlUpstream() throws Exception {
+        ExecutorService pool = UbicacionesService.nuevoExecutor(1, 1, false);
+        UbicacionesService servicio = new UbicacionesService(new RestTemplate(), urlBase, TTL, REVALIDACION,
+            Duration.ofSeconds(5), 100, directorioSnapshot, pool, circuitBreaker, Bulkhead.ofDefaults("ubicaciones"), reloj);
+        liberar = new CountDownLatch(1);
+        try {
+            // Una llamada ocupa el único hilo y otra la cola
+            CompletableFuture.runAsync(() -> servicio.obtenerComunas("13"), executor);
+            CompletableFuture.runAsync(() -> servicio.obtenerComunas("14"), executor);
+            esperarHasta(() -> llamadas.get() == 1 && pool instanceof ThreadPoolExecutor tpe && tpe.getQueue().size() == 1);
+
+            long inicio = System.nanoTime();
+            assertThatThrownBy(() -> servicio.obtenerComunas("15")).isInstanceOf(UbicacionesNoDisponiblesException.class);
+            assertThat(Duration.ofNanos(System.nanoTime() - inicio)).isLessThan(Duration.ofSeconds(1));
+        } finally {
+            liberar.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    private static void esperarHasta(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condicion.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("tiempo de espera agotado").isLessThan(limite);
+            Thread.sleep(20);
+        }
+    }
+
+    private static final class RelojManual extends Clock {
+
+        private volatile Instant ahora = Instant.parse("2025-01-01T00:00:00Z");
+
+        void avanzar(Duration duracion) {
+            ahora = ahora.plus(duracion);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return ahora;
+        }
+    }
+}
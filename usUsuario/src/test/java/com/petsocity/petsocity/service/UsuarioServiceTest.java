@@ -0,0 +1,40 @@
+package com.petsocity.petsocity.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Qué violaciones de integridad se informan como correo ya registrado, con los mensajes que
+ * entrega el driver de MySQL.
+ */
+class UsuarioServiceTest {
+
+    private static DataIntegrityViolationException violacion(String mensajeDriver) {
+        return new DataIntegrityViolationException("could not execute statement",
+            new SQLIntegrityConstraintViolationException(mensajeDriver));
+    }
+
+    @Test
+    void elIndiceUnicoDelCorreoEsCorreoDuplicado() {
+        DataIntegrityViolationException e =
+            violacion("Duplicate entry 'ana@petsocity.cl' for key 'usuario.UK_USUARIO_EMAIL'");
+
+        assertThat(UsuarioService.comoCorreoDuplicado(e))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("El correo ingresado ya esta registrado")
+            .hasCause(e);
+    }
+
+    @Test
+    void otrasViolacionesSeRelanzan() {
+        DataIntegrityViolationException nulo = violacion("Column 'nombre' cannot be null");
+        DataIntegrityViolationException largo = violacion("Data truncation: Data too long for column 'telefono' at row 1");
+
+        assertThat(UsuarioService.comoCorreoDuplicado(nulo)).isSameAs(nulo);
+        assertThat(UsuarioService.comoCorreoDuplicado(largo)).isSameAs(largo);
+    }
+}
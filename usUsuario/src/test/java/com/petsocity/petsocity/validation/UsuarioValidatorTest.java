@@ -0,0 +1,85 @@
+package com.petsocity.petsocity.validation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.petsocity.petsocity.model.Usuario;
+
+/**
+ * Los recorridos de UsuarioValidator deben aceptar exactamente lo que aceptaban las
+ * expresiones regulares que reemplazan.
+ */
+class UsuarioValidatorTest {
+
+    private static final Pattern LETRAS = Pattern.compile("^[A-Za-zÁÉÍÓÚÑáéíóúñ ]+$");
+    private static final Pattern EMAIL = Pattern.compile("^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "ana@petsocity.cl", "ana.rojas@petsocity.cl", "a@b.co", "a+b_c%d-e@mail.example.com",
+        "ana..rojas@petsocity.cl", ".ana@petsocity.cl", "ana.@petsocity.cl", "-ana@petsocity.cl",
+        "ana@petsocity..cl", "ana@.petsocity.cl", "ana@petsocity.cl.", "ana@-petsocity.cl", "ana@petsocity-.cl",
+        "ana@petsocity.c", "ana@petsocity.c1", "ana@petsocity.123", "ana@petsocity", "ana@.cl", "ana@..cl",
+        "@petsocity.cl", "ana@", "@", "", ".", "ana", "ana@@petsocity.cl", "ana@petso@city.cl",
+        "ána@petsocity.cl", "ana@petsocíty.cl", "ana@petsocity.cló", "ana rojas@petsocity.cl", "ana@petsocity.cl ",
+        "ana@petsocity.CL", "ANA@PETSOCITY.COM", "1@2.ab", "ana@petsocity.c-l", "ana@petsocity.cl-"
+    })
+    void emailEquivaleALaExpresionOriginal(String valor) {
+        assertThat(UsuarioValidator.esEmailValido(valor))
+            .as(valor)
+            .isEqualTo(EMAIL.matcher(valor).matches());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "Ana", "Ana María", "José", "Ñuñoa", "ÁÉÍÓÚ áéíóú", " ", "  Ana  ", "", "Ana1", "Ana-María", "Ana.",
+        "Müller", "Çelik", "Ana\tMaría", "O'Higgins", "àna", "ANA"
+    })
+    void letrasEquivaleALaExpresionOriginal(String valor) {
+        assertThat(UsuarioValidator.esSoloLetras(valor))
+            .as(valor)
+            .isEqualTo(LETRAS.matcher(valor).matches());
+    }
+
+    @Test
+    void laContraseniaSeLimitaA72BytesEnUtf8() {
+        UsuarioValidator validador = new UsuarioValidator();
+
+        assertThat(validador.validarCambios(conContrasenia("a".repeat(72)))).isEmpty();
+        assertThat(validador.validarCambios(conContrasenia("a".repeat(73))))
+            .containsEntry("contrasenia", UsuarioValidator.CONTRASENIA_DEMASIADO_LARGA);
+        // 37 caracteres, pero 74 bytes
+        assertThat(validador.validarCambios(conContrasenia("ñ".repeat(37))))
+            .containsEntry("contrasenia", UsuarioValidator.CONTRASENIA_DEMASIADO_LARGA);
+        assertThat(validador.validarCambios(conContrasenia("abc")))
+            .containsEntry("contrasenia", UsuarioValidator.CONTRASENIA_INVALIDA);
+    }
+
+    private static Usuario conContrasenia(String contrasenia) {
+        Usuario usuario = new Usuario();
+        usuario.setContrasenia(contrasenia);
+        return usuario;
+    }
+
+    @Test
+    void entradasAlAzarCoincidenConLasExpresiones() {
+        Random azar = new Random(42);
+        String alfabeto = "ab.-_%+@1Z ñÁü";
+        for (int i = 0; i < 200_000; i++) {
+            StringBuilder valor = new StringBuilder();
+            int largo = azar.nextInt(12);
+            for (int j = 0; j < largo; j++) {
+                valor.append(alfabeto.charAt(azar.nextInt(alfabeto.length())));
+            }
+            String texto = valor.toString();
+            assertThat(UsuarioValidator.esEmailValido(texto)).as(texto).isEqualTo(EMAIL.matcher(texto).matches());
+            assertThat(UsuarioValidator.esSoloLetras(texto)).as(texto).isEqualTo(LETRAS.matcher(texto).matches());
+        }
+    }
+}